@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful readiness probe, for the plain
+# fat jar and for the extracted jar with AOT and a CDS archive, and prints the speedup.
+# Usage: scripts/time-to-first-request.sh [runs]
+# Needs bash 5 for $EPOCHREALTIME (date +%s%3N is GNU-only; macOS ships bash 3, use brew's bash).
+set -euo pipefail
+
+if [ -z "${EPOCHREALTIME:-}" ]; then
+    echo "bash 5 or newer is required (EPOCHREALTIME is not set)" >&2
+    exit 1
+fi
+
+RUNS=${1:-5}
+PORT=18080
+URL="http://localhost:$PORT/actuator/health/readiness"
+WORK=build/startup
+
+./gradlew bootJar --quiet
+
+# resolved after the build and checked explicitly, an empty glob would otherwise go unnoticed
+JAR=$(ls build/libs/*.jar 2>/dev/null | head -n 1 || true)
+if [ -z "$JAR" ]; then
+    echo "no jar found in build/libs after bootJar" >&2
+    exit 1
+fi
+
+rm -rf "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted"
+APP_JAR="$WORK/extracted/$(basename "$JAR")"
+java -XX:ArchiveClassesAtExit="$WORK/application.jsa" -Dspring.aot.enabled=true -Dspring.profiles.active=prod \
+    -Dspring.datasource.url=jdbc:h2:mem:training -Dspring.context.exit=onRefresh -jar "$APP_JAR" > /dev/null
+
+# microseconds since the epoch with the decimal separator (locale dependent) removed, in ms
+now_ms() {
+    local now=${EPOCHREALTIME/[.,]/}
+    echo $((10#$now / 1000))
+}
+
+# sets $average to the mean milliseconds to the first ready probe
+measure() {
+    local name=$1
+    shift
+    local total=0 i=0 start elapsed pid
+    while [ "$i" -lt "$RUNS" ]; do
+        rm -rf "$WORK/data"
+        start=$(now_ms)
+        java "$@" --server.port=$PORT --spring.datasource.url="jdbc:h2:file:./$WORK/data/ads" > /dev/null 2>&1 &
+        pid=$!
+        until curl -sf "$URL" > /dev/null 2>&1; do
+            sleep 0.05
+        done
+        elapsed=$(( $(now_ms) - start ))
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+        total=$((total + elapsed))
+        i=$((i + 1))
+    done
+    average=$((total / RUNS))
+    echo "$name: $average ms average to first request over $RUNS runs"
+}
+
+measure "fat jar (prod)" -Dspring.profiles.active=prod -jar "$JAR"
+baseline=$average
+measure "fat jar (prod, lazy)" -Dspring.profiles.active=prod,lazy -jar "$JAR"
+measure "extracted + AOT + CDS (prod)" -XX:SharedArchiveFile="$WORK/application.jsa" -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=prod -jar "$APP_JAR"
+echo "AOT + CDS vs fat jar: $baseline ms -> $average ms ($(( (baseline - average) * 100 / baseline ))% faster)"
@@ -0,0 +1,77 @@
+package com.example.task_codepred;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.service.AdvertisementService;
+
+/**
+ * Starts the application against a fresh in-memory H2 database and fills it with
+ * {@code tableSize} advertisements for the benchmarks.
+ */
+public final class BenchmarkApplication {
+
+    private static final int INSERT_BATCH = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final List<Long> ids;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context, List<Long> ids) {
+        this.context = context;
+        this.ids = ids;
+    }
+
+    public static BenchmarkApplication start(WebApplicationType webApplicationType, int tableSize, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--logging.level.com.example.task_codepred=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                // benchmarks drive the app from one address far above any per-client budget
+                "--ads.rate-limit.enabled=false"));
+        args.addAll(List.of(extraArgs));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskCodepredApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+
+        AdvertisementService advertisementService = context.getBean(AdvertisementService.class);
+        List<Long> ids = new ArrayList<>(tableSize);
+        List<Advertisement> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < tableSize; i++) {
+            Advertisement advertisement = new Advertisement();
+            advertisement.setTresc("Ogłoszenie testowe numer " + i + " do pomiarów wydajności");
+            batch.add(advertisement);
+            if (batch.size() == INSERT_BATCH || i == tableSize - 1) {
+                advertisementService.addAll(batch).forEach(saved -> ids.add(saved.getId()));
+                batch = new ArrayList<>(INSERT_BATCH);
+            }
+        }
+        return new BenchmarkApplication(context, ids);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    public List<Long> ids() {
+        return ids;
+    }
+
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.task_codepred.controller;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.test.autoconfigure.web.servlet.SpringBootMockMvcBuilderCustomizer;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.task_codepred.BenchmarkApplication;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Full MockMvc request path: the registered servlet filters (Spring Security chain, access log,
+ * read-your-writes), handler mapping, validation, service and JSON. The rate limiter is switched
+ * off by {@link BenchmarkApplication}, so its filter is not part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AdvertisementRequestBenchmark {
+
+    private static final String CREATE_BODY = "{\"tresc\": \"Ogłoszenie dodane przez MockMvc w pomiarze\"}";
+
+    @Param({ "1000", "100000" })
+    private int tableSize;
+
+    private BenchmarkApplication application;
+    private MockMvc mockMvc;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start(WebApplicationType.SERVLET, tableSize);
+        WebApplicationContext context = (WebApplicationContext) application.context();
+        DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup(context);
+        // adds the filters the embedded server would register, as @AutoConfigureMockMvc does
+        new SpringBootMockMvcBuilderCustomizer(context).customize(builder);
+        mockMvc = builder.build();
+        ids = application.ids();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public String getAdvertisement() throws Exception {
+        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return mockMvc.perform(get("/ads/" + id))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    @Benchmark
+    public String addAdvertisement() throws Exception {
+        return mockMvc.perform(post("/ads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(CREATE_BODY))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+}
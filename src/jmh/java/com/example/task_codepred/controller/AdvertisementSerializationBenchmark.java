@@ -0,0 +1,53 @@
+package com.example.task_codepred.controller;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.task_codepred.dto.AdvertisementDto;
+import com.example.task_codepred.entity.Advertisement;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AdvertisementSerializationBenchmark {
+
+    private AdvertisementController controller;
+    private ObjectMapper objectMapper;
+    private Advertisement advertisement;
+    private AdvertisementDto dto;
+
+    @Setup
+    public void setUp() {
+        controller = new AdvertisementController(null, null, null, null, null);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        advertisement = new Advertisement(42L, "Sprzedam samochód osobowy w bardzo dobrym stanie, cena do negocjacji",
+                LocalDateTime.now(), 1234, 3L);
+        dto = controller.convertToDto(advertisement);
+    }
+
+    @Benchmark
+    public AdvertisementDto convertToDto() {
+        return controller.convertToDto(advertisement);
+    }
+
+    @Benchmark
+    public byte[] serializeDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(controller.convertToDto(advertisement));
+    }
+}
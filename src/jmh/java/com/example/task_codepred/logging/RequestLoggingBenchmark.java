@@ -0,0 +1,120 @@
+package com.example.task_codepred.logging;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.CommonsRequestLoggingFilter;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.core.FileAppender;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Per-request overhead of request logging around a trivial handler: the previous
+ * synchronous CommonsRequestLoggingFilter (payload up to 10 KB, logged at DEBUG on the
+ * request thread) against the sampled access log drained by a background writer.
+ * Both log to a file appender so console output does not dominate the numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestLoggingBenchmark {
+
+    private static final byte[] BODY = "{\"tresc\": \"Sprzedam samochód osobowy w bardzo dobrym stanie, cena do negocjacji\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({ "none", "commons", "access-log", "access-log-sampled" })
+    private String mode;
+
+    private Filter filter;
+    private AccessLogWriter accessLogWriter;
+    private FileAppender<ch.qos.logback.classic.spi.ILoggingEvent> appender;
+
+    private final FilterChain chain = (request, response) -> {
+        StreamUtils.copyToByteArray(request.getInputStream());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(BODY);
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+        appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(File.createTempFile("request-logging-", ".log").getAbsolutePath());
+        appender.setEncoder(encoder);
+        appender.start();
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(appender);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+
+        switch (mode) {
+            case "commons" -> {
+                context.getLogger(CommonsRequestLoggingFilter.class).setLevel(ch.qos.logback.classic.Level.DEBUG);
+                CommonsRequestLoggingFilter commons = new CommonsRequestLoggingFilter();
+                commons.setIncludeQueryString(true);
+                commons.setIncludePayload(true);
+                commons.setMaxPayloadLength(10000);
+                commons.setIncludeHeaders(false);
+                filter = commons;
+            }
+            case "access-log", "access-log-sampled" -> {
+                accessLogWriter = new AccessLogWriter(Jackson2ObjectMapperBuilder.json().build(), 8192,
+                        Duration.ofMillis(200));
+                accessLogWriter.start();
+                double sampleRate = mode.equals("access-log") ? 1.0 : 0.1;
+                filter = new AccessLogFilter(accessLogWriter, sampleRate, Duration.ofMillis(500), 256);
+            }
+            default -> filter = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (accessLogWriter != null) {
+            accessLogWriter.stop();
+        }
+        appender.stop();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/ads");
+        request.setQueryString("source=benchmark");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        if (filter == null) {
+            chain.doFilter(request, response);
+        } else {
+            filter.doFilter(request, response, chain);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.task_codepred.service;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+
+import com.example.task_codepred.BenchmarkApplication;
+import com.example.task_codepred.dto.AdvertisementDto;
+import com.example.task_codepred.entity.Advertisement;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AdvertisementServiceBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int tableSize;
+
+    private BenchmarkApplication application;
+    private AdvertisementService advertisementService;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start(WebApplicationType.NONE, tableSize);
+        advertisementService = application.getBean(AdvertisementService.class);
+        ids = application.ids();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public AdvertisementDto getById() {
+        return advertisementService.getById(randomId());
+    }
+
+    @Benchmark
+    public Advertisement add() {
+        Advertisement advertisement = new Advertisement();
+        advertisement.setTresc("Nowe ogłoszenie dodane w pomiarze");
+        return advertisementService.add(advertisement);
+    }
+
+    @Benchmark
+    public Advertisement update() {
+        Advertisement advertisement = new Advertisement();
+        advertisement.setTresc("Ogłoszenie zaktualizowane w pomiarze " + ThreadLocalRandom.current().nextInt());
+        return advertisementService.update(randomId(), advertisement);
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
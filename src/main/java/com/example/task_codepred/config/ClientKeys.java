@@ -0,0 +1,31 @@
+package com.example.task_codepred.config;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Identifies the client of a request for per-client limits and routing: the API key
+ * header when it carries one of the configured keys, otherwise the remote address.
+ * Unknown keys are ignored, so a client cannot get a fresh identity by changing the header.
+ */
+@Component
+public class ClientKeys {
+
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+
+    public ClientKeys(@Value("${ads.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader,
+                      @Value("${ads.rate-limit.api-keys:}") Set<String> apiKeys) {
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    public String of(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+}
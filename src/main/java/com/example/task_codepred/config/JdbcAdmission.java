@@ -0,0 +1,60 @@
+package com.example.task_codepred.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Puts an {@link AdmissionControlledDataSource} in front of each connection pool, sized to
+ * that pool, so a caller that passes a gate always finds a free connection behind it.
+ * {@code ads.jdbc.admission.permits} overrides the size for the primary pool only.
+ */
+public class JdbcAdmission {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcAdmission.class);
+
+    private final int primaryPermits;
+    private final Duration timeout;
+    private final Map<String, AdmissionControlledDataSource> gates = new ConcurrentHashMap<>();
+
+    public JdbcAdmission(int primaryPermits, Duration timeout) {
+        this.primaryPermits = primaryPermits;
+        this.timeout = timeout;
+    }
+
+    public AdmissionControlledDataSource gatePrimary(String name, DataSource pool) {
+        return gate(name, pool, primaryPermits > 0 ? primaryPermits : poolSize(pool));
+    }
+
+    public AdmissionControlledDataSource gate(String name, DataSource pool) {
+        return gate(name, pool, poolSize(pool));
+    }
+
+    /**
+     * Gates created so far, by pool name.
+     */
+    public Map<String, AdmissionControlledDataSource> gates() {
+        return Map.copyOf(gates);
+    }
+
+    static int poolSize(DataSource pool) {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(pool, HikariConfigMXBean.class, HikariDataSource.class);
+        return hikari != null ? hikari.getMaximumPoolSize() : 10;
+    }
+
+    private AdmissionControlledDataSource gate(String name, DataSource pool, int permits) {
+        logger.info("Limiting concurrent JDBC access on '{}' to {} connections", name, permits);
+        AdmissionControlledDataSource gate = new AdmissionControlledDataSource(pool, permits, timeout);
+        gates.put(name, gate);
+        return gate;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.task_codepred.config;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * With {@code spring.threads.virtual.enabled=true} every request gets its own virtual thread,
+ * so the connection pool becomes the only limit on concurrent JDBC work. This wraps the
+ * DataSource in an {@link AdmissionControlledDataSource} sized to the pool. With read replicas
+ * {@link ReadWriteRoutingConfig} gates the primary and every replica pool separately instead,
+ * and the routing proxy in front of them is left alone.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class JdbcAdmissionConfig {
+
+    @Bean
+    static JdbcAdmission jdbcAdmission(Environment environment) {
+        return new JdbcAdmission(
+                environment.getProperty("ads.jdbc.admission.permits", Integer.class, 0),
+                environment.getProperty("ads.jdbc.admission.timeout", Duration.class, Duration.ofSeconds(30)));
+    }
+
+    @Bean
+    static BeanPostProcessor jdbcAdmissionPostProcessor(ObjectProvider<JdbcAdmission> jdbcAdmission) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || isGated(dataSource)) {
+                    return bean;
+                }
+                return jdbcAdmission.getObject().gatePrimary(beanName, dataSource);
+            }
+        };
+    }
+
+    // the DataSource is injected so every pool is gated before the gauges are bound
+    @Bean
+    MeterBinder jdbcAdmissionMetrics(JdbcAdmission jdbcAdmission, DataSource dataSource) {
+        return registry -> jdbcAdmission.gates().forEach((pool, gate) -> {
+            Gauge.builder("ads.jdbc.admission.waiting", gate, AdmissionControlledDataSource::getQueueLength)
+                    .description("Callers queued for a database connection")
+                    .tag("pool", pool)
+                    .register(registry);
+            Gauge.builder("ads.jdbc.admission.available", gate, AdmissionControlledDataSource::getAvailablePermits)
+                    .description("Free database connection permits")
+                    .tag("pool", pool)
+                    .register(registry);
+        });
+    }
+
+    static boolean isGated(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(AdmissionControlledDataSource.class);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+}
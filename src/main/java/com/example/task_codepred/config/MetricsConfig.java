@@ -0,0 +1,49 @@
+package com.example.task_codepred.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.task_codepred.outbox.AdvertisementChangeStream;
+import com.example.task_codepred.service.AdvertisementSearchIndex;
+import com.example.task_codepred.service.AdvertisementViewStats;
+import com.example.task_codepred.service.ViewCounter;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Enables {@code @Timed} on service methods and registers gauges for in-memory state.
+ * Connection pool (hikaricp.*) and request (http.server.requests) metrics come from
+ * Spring Boot auto-configuration, cache metrics (cache.*) from {@code AdvertisementCache}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder advertisementStateMetrics(ViewCounter viewCounter,
+                                                 AdvertisementSearchIndex searchIndex,
+                                                 AdvertisementViewStats viewStats,
+                                                 AdvertisementChangeStream changeStream) {
+        return registry -> {
+            Gauge.builder("ads.views.pending", viewCounter, ViewCounter::pendingViews)
+                    .description("Views recorded in memory and not yet written to the database")
+                    .register(registry);
+            Gauge.builder("ads.search.index.size", searchIndex, AdvertisementSearchIndex::size)
+                    .description("Advertisements in the full-text search index")
+                    .register(registry);
+            Gauge.builder("ads.stats.tracked", viewStats, AdvertisementViewStats::trackedAdvertisements)
+                    .description("Advertisements with per-minute view counts held in memory")
+                    .register(registry);
+            Gauge.builder("ads.changes.subscribers", changeStream, AdvertisementChangeStream::subscriberCount)
+                    .description("Clients connected to the change stream")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.task_codepred.config;
+
+import java.sql.Connection;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.example.task_codepred.dto.AdvertisementChangeDto;
+import com.example.task_codepred.dto.AdvertisementDto;
+import com.example.task_codepred.dto.AdvertisementLookupResultDto;
+import com.example.task_codepred.dto.AdvertisementPageDto;
+import com.example.task_codepred.dto.AdvertisementSearchResultDto;
+import com.example.task_codepred.dto.AdvertisementViewStatsDto;
+import com.example.task_codepred.dto.BatchItemResultDto;
+import com.example.task_codepred.dto.BatchUpdateAdvertisementDto;
+import com.example.task_codepred.dto.CreateAdvertisementDto;
+import com.example.task_codepred.dto.ImportResultDto;
+import com.example.task_codepred.dto.LineRangeDto;
+import com.example.task_codepred.dto.RejectedLineDto;
+import com.example.task_codepred.dto.UpdateAdvertisementDto;
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.exception.ErrorResponse;
+import com.example.task_codepred.logging.AccessLogEntry;
+
+/**
+ * Reflection, proxy and resource hints for the native image that Spring AOT cannot infer:
+ * types serialized outside of controller signatures (export, import, access log, the
+ * JPQL constructor projection) and the JDK proxy used by the JDBC admission gate.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.AdvertisementRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class AdvertisementRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final Class<?>[] JSON_TYPES = {
+            AdvertisementChangeDto.class,
+            AdvertisementDto.class,
+            AdvertisementLookupResultDto.class,
+            AdvertisementPageDto.class,
+            AdvertisementSearchResultDto.class,
+            AdvertisementViewStatsDto.class,
+            BatchItemResultDto.class,
+            BatchUpdateAdvertisementDto.class,
+            CreateAdvertisementDto.class,
+            UpdateAdvertisementDto.class,
+            ImportResultDto.class,
+            LineRangeDto.class,
+            RejectedLineDto.class,
+            ErrorResponse.class,
+            AccessLogEntry.class
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+
+            hints.reflection().registerType(Advertisement.class, MemberCategory.values());
+            // SELECT new AdvertisementDto(...) in AdvertisementRepository
+            hints.reflection().registerType(AdvertisementDto.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            hints.proxies().registerJdkProxy(Connection.class);
+            hints.resources().registerPattern("db/migration/*.sql");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.task_codepred.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.task_codepred.ratelimit.RateLimitFilter;
+import com.example.task_codepred.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * The rate limit filter is added to the security filter chain by {@link SecurityConfig};
+ * its automatic registration as a plain servlet filter is switched off so it runs once.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ads.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(RateLimiter rateLimiter,
+                                           ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry,
+                                           ClientKeys clientKeys,
+                                           @Value("${ads.rate-limit.max-concurrent-requests:200}") int maxConcurrentRequests) {
+        return new RateLimitFilter(rateLimiter, maxConcurrentRequests, clientKeys, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimiter rateLimiter, RateLimitFilter rateLimitFilter) {
+        return registry -> {
+            Gauge.builder("ads.requests.in-flight", rateLimitFilter, RateLimitFilter::inFlightRequests)
+                    .description("Requests currently admitted past the concurrency cap")
+                    .register(registry);
+            Gauge.builder("ads.rate-limit.clients", rateLimiter, RateLimiter::trackedClients)
+                    .description("Client buckets currently held by the rate limiter")
+                    .register(registry);
+        };
+    }
+}
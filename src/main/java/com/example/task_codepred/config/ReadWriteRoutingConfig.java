@@ -0,0 +1,82 @@
+package com.example.task_codepred.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.task_codepred.health.ReplicaHealthIndicator;
+import com.example.task_codepred.routing.ReadWriteDataSources;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * With {@code ads.datasource.replica-urls} set, the application DataSource becomes a
+ * {@link LazyConnectionDataSourceProxy} over the primary pool: the physical connection is
+ * only fetched at the first statement, after the transaction manager has marked it
+ * read-only or not, and read-only connections come from {@link ReadWriteDataSources#reads()}.
+ * Replicas use the primary's credentials. With virtual threads each pool gets its own
+ * {@link JdbcAdmission} gate, so writes and primary fallback reads queue for the primary pool
+ * and replica reads for their replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ads.datasource.replica-urls")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    public ReadWriteDataSources readWriteDataSources(DataSourceProperties properties,
+                                                     Environment environment,
+                                                     @Value("${ads.datasource.replica-urls}") List<String> replicaUrls,
+                                                     @Value("${ads.datasource.replica-pool-size:10}") int replicaPoolSize,
+                                                     @Value("${ads.datasource.replica-connection-timeout:2s}") Duration connectionTimeout,
+                                                     MeterRegistry meterRegistry,
+                                                     ObjectProvider<JdbcAdmission> jdbcAdmission) {
+        JdbcAdmission admission = jdbcAdmission.getIfAvailable();
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("ads-replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            replica.setMetricRegistry(meterRegistry);
+            // start even when a replica is down, reads fall back to the primary
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(admission != null ? admission.gate(replica.getPoolName(), replica) : replica);
+        }
+        DataSource primaryPool = admission != null ? admission.gatePrimary("primary", primary) : primary;
+        return new ReadWriteDataSources(primaryPool, replicas, connectionTimeout);
+    }
+
+    @Bean
+    public DataSource dataSource(ReadWriteDataSources readWriteDataSources) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(readWriteDataSources.primary());
+        dataSource.setReadOnlyDataSource(readWriteDataSources.reads());
+        return dataSource;
+    }
+
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReadWriteDataSources readWriteDataSources) {
+        return new ReplicaHealthIndicator(readWriteDataSources);
+    }
+}
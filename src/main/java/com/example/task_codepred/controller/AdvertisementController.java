@@ -1,8 +1,27 @@
 package com.example.task_codepred.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ETag;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,20 +30,39 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.task_codepred.dto.AdvertisementDto;
+import com.example.task_codepred.dto.AdvertisementLookupResultDto;
+import com.example.task_codepred.dto.AdvertisementPageDto;
+import com.example.task_codepred.dto.AdvertisementSearchResultDto;
+import com.example.task_codepred.dto.AdvertisementViewStatsDto;
+import com.example.task_codepred.dto.BatchItemResultDto;
+import com.example.task_codepred.dto.BatchItemStatus;
+import com.example.task_codepred.dto.BatchUpdateAdvertisementDto;
+import com.example.task_codepred.dto.ImportResultDto;
 import com.example.task_codepred.dto.CreateAdvertisementDto;
 import com.example.task_codepred.dto.UpdateAdvertisementDto;
 import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.exception.InvalidBatchRequestException;
+import com.example.task_codepred.exception.InvalidPageRequestException;
+import com.example.task_codepred.outbox.AdvertisementChangeStream;
+import com.example.task_codepred.service.AdvertisementExportService;
+import com.example.task_codepred.service.AdvertisementImportService;
 import com.example.task_codepred.service.AdvertisementService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -36,6 +74,19 @@ public class AdvertisementController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdvertisementController.class);
     private final AdvertisementService advertisementService;
+    private final AdvertisementExportService advertisementExportService;
+    private final AdvertisementImportService advertisementImportService;
+    private final AdvertisementChangeStream changeStream;
+    private final Validator validator;
+
+    @Value("${ads.listing.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${ads.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${ads.stats.max-window:30d}")
+    private Duration maxStatsWindow;
 
     @PostMapping
     @Operation(summary = "Add new advertisement", description = "Creates a new advertisement with automatic date setting and view count initialization")
@@ -44,7 +95,7 @@ public class AdvertisementController {
         @ApiResponse(responseCode = "400", description = "Invalid input data")
     })
         public ResponseEntity<AdvertisementDto> addAdvertisement(@Valid @RequestBody CreateAdvertisementDto createDto) {
-        logger.info("POST /ads - Adding new advertisement with content: {}", createDto.getTresc());
+        logger.info("POST /ads - Adding new advertisement, content length: {}", createDto.getTresc().length());
         
         Advertisement advertisement = new Advertisement();
         advertisement.setTresc(createDto.getTresc());
@@ -53,64 +104,399 @@ public class AdvertisementController {
         AdvertisementDto responseDto = convertToDto(saved);
         
         logger.info("POST /ads - Advertisement created successfully with ID: {}", saved.getId());
-        return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(etag(responseDto)).body(responseDto);
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update advertisement", description = "Updates an existing advertisement by ID")
+    @Operation(summary = "Update advertisement", description = "Updates an existing advertisement by ID, optionally only if it still matches the If-Match ETag")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Advertisement updated successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
-        @ApiResponse(responseCode = "404", description = "Advertisement not found")
+        @ApiResponse(responseCode = "404", description = "Advertisement not found"),
+        @ApiResponse(responseCode = "409", description = "Advertisement was modified concurrently by another request"),
+        @ApiResponse(responseCode = "412", description = "Advertisement was modified since the If-Match ETag was issued")
     })
         public ResponseEntity<AdvertisementDto> updateAdvertisement(@PathVariable Long id, 
-                                                              @Valid @RequestBody UpdateAdvertisementDto updateDto) {
-        logger.info("PUT /ads/{} - Updating advertisement with content: {}", id, updateDto.getTresc());
+                                                              @Valid @RequestBody UpdateAdvertisementDto updateDto,
+                                                              @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        logger.info("PUT /ads/{} - Updating advertisement, content length: {}", id, updateDto.getTresc().length());
         
         Advertisement advertisement = new Advertisement();
         advertisement.setTresc(updateDto.getTresc());
         
-        Advertisement updated = advertisementService.update(id, advertisement);
+        Advertisement updated = advertisementService.update(id, advertisement, expectedVersions(ifMatch));
         AdvertisementDto responseDto = convertToDto(updated);
         
         logger.info("PUT /ads/{} - Advertisement updated successfully", id);
-        return ResponseEntity.ok(responseDto);
+        return ResponseEntity.ok().eTag(etag(responseDto)).body(responseDto);
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete advertisement", description = "Deletes an advertisement by ID")
+    @Operation(summary = "Delete advertisement", description = "Deletes an advertisement by ID, optionally only if it still matches the If-Match ETag")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Advertisement deleted successfully"),
-        @ApiResponse(responseCode = "404", description = "Advertisement not found")
+        @ApiResponse(responseCode = "404", description = "Advertisement not found"),
+        @ApiResponse(responseCode = "409", description = "Advertisement was modified concurrently by another request"),
+        @ApiResponse(responseCode = "412", description = "Advertisement was modified since the If-Match ETag was issued")
     })
-    public ResponseEntity<Void> deleteAdvertisement(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteAdvertisement(@PathVariable Long id,
+                                                    @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         logger.info("DELETE /ads/{} - Deleting advertisement", id);
-        advertisementService.delete(id);
+        advertisementService.delete(id, expectedVersions(ifMatch));
         logger.info("DELETE /ads/{} - Advertisement deleted successfully", id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get advertisement by ID", description = "Retrieves an advertisement by ID and increments view count")
+    @Operation(summary = "Get advertisement by ID", description = "Retrieves an advertisement by ID and increments view count; answers 304 when If-None-Match matches the current ETag")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Advertisement retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Advertisement not modified since the If-None-Match ETag was issued"),
         @ApiResponse(responseCode = "404", description = "Advertisement not found")
     })
         public ResponseEntity<AdvertisementDto> getAdvertisement(@PathVariable Long id) {
         logger.info("GET /ads/{} - Retrieving advertisement", id);
-        Advertisement advertisement = advertisementService.getById(id);
-        AdvertisementDto responseDto = convertToDto(advertisement);
+        AdvertisementDto responseDto = advertisementService.getById(id);
         
-        logger.info("GET /ads/{} - Advertisement retrieved successfully, view count: {}", id, advertisement.getIloscWyswietlen());
+        logger.info("GET /ads/{} - Advertisement retrieved successfully, view count: {}", id, responseDto.getIloscWyswietlen());
+        // If-None-Match is evaluated against this ETag before the body is written, a match gives 304 without serialization
+        return ResponseEntity.ok().eTag(etag(responseDto)).body(responseDto);
+    }
+
+    @GetMapping("/{id}/stats")
+    @Operation(summary = "Get advertisement view statistics", description = "Returns the number of views in the last window (e.g. 15m, 1h, 7d), without incrementing the view count; windows over an hour start at a full hour")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "View statistics retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid window"),
+        @ApiResponse(responseCode = "404", description = "Advertisement not found")
+    })
+    public ResponseEntity<AdvertisementViewStatsDto> getAdvertisementStats(@PathVariable Long id,
+                                                                           @RequestParam(defaultValue = "1h") String window) {
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPageRequestException("Nieprawidłowe okno czasowe: " + window);
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxStatsWindow) > 0) {
+            throw new InvalidPageRequestException("Okno czasowe musi być dodatnie i nie dłuższe niż " + maxStatsWindow);
+        }
+        logger.info("GET /ads/{}/stats - Retrieving view statistics for the last {}", id, duration);
+        return ResponseEntity.ok(advertisementService.getViewStats(id, duration));
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get many advertisements by ID", description = "Retrieves the advertisements with the given comma-separated ids in one query and increments their view counts; ids that do not exist are listed in notFound")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Advertisements retrieved, see notFound for missing ids"),
+        @ApiResponse(responseCode = "400", description = "No ids or too many ids")
+    })
+    public ResponseEntity<AdvertisementLookupResultDto> getAdvertisements(@RequestParam List<Long> ids) {
+        logger.info("GET /ads?ids - Retrieving {} advertisements", ids.size());
+        return ResponseEntity.ok(lookup(ids));
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Get many advertisements by ID (long lists)", description = "Same as GET /ads?ids=... with the ids sent as a JSON array in the body")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Advertisements retrieved, see notFound for missing ids"),
+        @ApiResponse(responseCode = "400", description = "No ids or too many ids")
+    })
+    public ResponseEntity<AdvertisementLookupResultDto> lookupAdvertisements(@RequestBody List<Long> ids) {
+        logger.info("POST /ads/lookup - Retrieving {} advertisements", ids.size());
+        return ResponseEntity.ok(lookup(ids));
+    }
+
+    @GetMapping
+    @Operation(summary = "List advertisements", description = "Lists advertisements ordered by creation date using keyset pagination, without incrementing view counts")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of advertisements retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid page parameters")
+    })
+    public ResponseEntity<AdvertisementPageDto> listAdvertisements(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        if ((afterDate == null) != (afterId == null)) {
+            throw new InvalidPageRequestException("Parametry 'afterDate' i 'afterId' muszą być podane razem");
+        }
+        if (size < 1) {
+            throw new InvalidPageRequestException("Rozmiar strony musi być większy od 0");
+        }
+        int pageSize = Math.min(size, maxPageSize);
+        logger.info("GET /ads - Listing advertisements after ({}, {}), page size: {}", afterDate, afterId, pageSize);
+
+        List<AdvertisementDto> page = advertisementService.findPage(afterDate, afterId, pageSize + 1);
+        boolean hasNext = page.size() > pageSize;
+        List<AdvertisementDto> items = hasNext ? page.subList(0, pageSize) : page;
+
+        AdvertisementPageDto responseDto = new AdvertisementPageDto(items, hasNext, null, null);
+        if (hasNext) {
+            AdvertisementDto last = items.get(items.size() - 1);
+            responseDto.setNextAfterDate(last.getDataDodania());
+            responseDto.setNextAfterId(last.getId());
+        }
         return ResponseEntity.ok(responseDto);
     }
 
-    private AdvertisementDto convertToDto(Advertisement advertisement) {
+    @GetMapping("/search")
+    @Operation(summary = "Search advertisements", description = "Finds advertisements containing all query words (a trailing * matches a prefix), most viewed first, without incrementing view counts")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search results retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid query or page parameters")
+    })
+    public ResponseEntity<AdvertisementSearchResultDto> searchAdvertisements(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (q.isBlank()) {
+            throw new InvalidPageRequestException("Zapytanie nie może być puste");
+        }
+        if (page < 0 || size < 1) {
+            throw new InvalidPageRequestException("Numer strony nie może być ujemny, a rozmiar strony musi być większy od 0");
+        }
+        int pageSize = Math.min(size, maxPageSize);
+        logger.info("GET /ads/search - Searching advertisements for '{}', page {}", q, page);
+
+        Page<AdvertisementDto> results = advertisementService.search(q, page, pageSize);
+        return ResponseEntity.ok(new AdvertisementSearchResultDto(results.getContent(), page, pageSize, results.getTotalElements()));
+    }
+
+    @GetMapping("/top")
+    @Operation(summary = "Get most viewed advertisements", description = "Returns the n most viewed advertisements from a continuously maintained ranking, without incrementing view counts")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Most viewed advertisements retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid n parameter")
+    })
+    public ResponseEntity<List<AdvertisementDto>> getTopViewedAdvertisements(@RequestParam(defaultValue = "10") int n) {
+        if (n < 1) {
+            throw new InvalidPageRequestException("Parametr 'n' musi być większy od 0");
+        }
+        int limit = Math.min(n, maxPageSize);
+        logger.info("GET /ads/top - Retrieving {} most viewed advertisements", limit);
+        return ResponseEntity.ok(advertisementService.getTopViewed(limit));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Add advertisements in batch", description = "Creates many advertisements in one transaction and returns a result for every item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+        @ApiResponse(responseCode = "400", description = "Batch is empty or too large")
+    })
+    public ResponseEntity<List<BatchItemResultDto>> addAdvertisements(@RequestBody List<CreateAdvertisementDto> createDtos) {
+        checkBatchSize(createDtos.size());
+        logger.info("POST /ads/batch - Adding batch of {} advertisements", createDtos.size());
+
+        BatchItemResultDto[] results = new BatchItemResultDto[createDtos.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Advertisement> toCreate = new ArrayList<>();
+        for (int i = 0; i < createDtos.size(); i++) {
+            CreateAdvertisementDto createDto = createDtos.get(i);
+            String violation = firstViolation(createDto);
+            if (violation != null) {
+                results[i] = new BatchItemResultDto(i, null, BatchItemStatus.INVALID, violation, null);
+                continue;
+            }
+            Advertisement advertisement = new Advertisement();
+            advertisement.setTresc(createDto.getTresc());
+            toCreate.add(advertisement);
+            indexes.add(i);
+        }
+
+        List<Advertisement> saved = toCreate.isEmpty() ? List.of() : advertisementService.addAll(toCreate);
+        for (int j = 0; j < saved.size(); j++) {
+            Advertisement advertisement = saved.get(j);
+            int index = indexes.get(j);
+            results[index] = new BatchItemResultDto(index, advertisement.getId(), BatchItemStatus.CREATED, null, convertToDto(advertisement));
+        }
+
+        logger.info("POST /ads/batch - {} of {} advertisements created", saved.size(), createDtos.size());
+        return ResponseEntity.ok(Arrays.asList(results));
+    }
+
+    @PutMapping("/batch")
+    @Operation(summary = "Update advertisements in batch", description = "Updates many advertisements in one transaction and returns a result for every item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+        @ApiResponse(responseCode = "400", description = "Batch is empty or too large")
+    })
+    public ResponseEntity<List<BatchItemResultDto>> updateAdvertisements(@RequestBody List<BatchUpdateAdvertisementDto> updateDtos) {
+        checkBatchSize(updateDtos.size());
+        logger.info("PUT /ads/batch - Updating batch of {} advertisements", updateDtos.size());
+
+        BatchItemResultDto[] results = new BatchItemResultDto[updateDtos.size()];
+        Map<Long, String> trescById = new LinkedHashMap<>();
+        for (int i = 0; i < updateDtos.size(); i++) {
+            BatchUpdateAdvertisementDto updateDto = updateDtos.get(i);
+            String violation = firstViolation(updateDto);
+            if (violation != null) {
+                Long id = updateDto != null ? updateDto.getId() : null;
+                results[i] = new BatchItemResultDto(i, id, BatchItemStatus.INVALID, violation, null);
+                continue;
+            }
+            trescById.put(updateDto.getId(), updateDto.getTresc());
+        }
+
+        Map<Long, Advertisement> updated = trescById.isEmpty() ? Map.of() : advertisementService.updateAll(trescById);
+        for (int i = 0; i < updateDtos.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Long id = updateDtos.get(i).getId();
+            Advertisement advertisement = updated.get(id);
+            results[i] = advertisement != null
+                    ? new BatchItemResultDto(i, id, BatchItemStatus.UPDATED, null, convertToDto(advertisement))
+                    : new BatchItemResultDto(i, id, BatchItemStatus.NOT_FOUND, "Advertisement with id " + id + " not found", null);
+        }
+
+        logger.info("PUT /ads/batch - {} of {} advertisements updated", updated.size(), updateDtos.size());
+        return ResponseEntity.ok(Arrays.asList(results));
+    }
+
+    @DeleteMapping("/batch")
+    @Operation(summary = "Delete advertisements in batch", description = "Deletes many advertisements with a single statement and returns a result for every id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+        @ApiResponse(responseCode = "400", description = "Batch is empty or too large")
+    })
+    public ResponseEntity<List<BatchItemResultDto>> deleteAdvertisements(@RequestBody List<Long> ids) {
+        checkBatchSize(ids.size());
+        logger.info("DELETE /ads/batch - Deleting batch of {} advertisements", ids.size());
+
+        Set<Long> deleted = new HashSet<>(advertisementService.deleteAll(ids));
+        List<BatchItemResultDto> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            results.add(deleted.contains(id)
+                    ? new BatchItemResultDto(i, id, BatchItemStatus.DELETED, null, null)
+                    : new BatchItemResultDto(i, id, BatchItemStatus.NOT_FOUND, "Advertisement with id " + id + " not found", null));
+        }
+
+        logger.info("DELETE /ads/batch - {} of {} advertisements deleted", deleted.size(), ids.size());
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all advertisements", description = "Streams every advertisement as newline-delimited JSON without incrementing view counts")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully")
+    })
+    public ResponseEntity<StreamingResponseBody> exportAdvertisements() {
+        logger.info("GET /ads/export - Streaming advertisement export");
+        StreamingResponseBody body = advertisementExportService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream advertisement changes", description = "Server-sent events for every created, updated and deleted advertisement in commit order, without incrementing view counts; the event id is an offset to resume from with since or Last-Event-ID, without since only new changes are sent")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Change stream started"),
+        @ApiResponse(responseCode = "400", description = "Invalid offset"),
+        @ApiResponse(responseCode = "410", description = "Changes after the offset are no longer retained"),
+        @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    public SseEmitter streamChanges(@RequestParam(required = false) Long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        // sent by EventSource on reconnect and newer than the since of the original URL
+        Long from = lastEventId != null ? lastEventId : since;
+        if (from != null && from < 0) {
+            throw new InvalidPageRequestException("Offset nie może być ujemny");
+        }
+        logger.info("GET /ads/changes - Streaming advertisement changes since offset {}", from);
+        return changeStream.subscribe(from);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import advertisements", description = "Imports newline-delimited JSON advertisements in batched transactions and reports accepted and rejected lines")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import processed, see accepted and rejected lines")
+    })
+    public ResponseEntity<ImportResultDto> importAdvertisements(InputStream body) throws IOException {
+        logger.info("POST /ads/import - Importing advertisements");
+        ImportResultDto result = advertisementImportService.importNdjson(body);
+        logger.info("POST /ads/import - {} lines accepted, {} rejected", result.getAcceptedCount(), result.getRejectedCount());
+        return ResponseEntity.ok(result);
+    }
+
+    private AdvertisementLookupResultDto lookup(List<Long> ids) {
+        if (ids.contains(null)) {
+            throw new InvalidBatchRequestException("Lista identyfikatorów nie może zawierać pustych wartości");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.isEmpty()) {
+            throw new InvalidBatchRequestException("Lista identyfikatorów nie może być pusta");
+        }
+        if (distinctIds.size() > maxPageSize) {
+            throw new InvalidBatchRequestException("Można pobrać maksymalnie " + maxPageSize + " ogłoszeń naraz");
+        }
+
+        List<AdvertisementDto> found = advertisementService.getByIds(distinctIds);
+        Set<Long> foundIds = new HashSet<>();
+        found.forEach(dto -> foundIds.add(dto.getId()));
+        List<Long> notFound = distinctIds.stream()
+                .filter(id -> !foundIds.contains(id))
+                .toList();
+        logger.info("Lookup finished, {} of {} advertisements found", found.size(), distinctIds.size());
+        return new AdvertisementLookupResultDto(found, notFound);
+    }
+
+    private void checkBatchSize(int size) {
+        if (size == 0) {
+            throw new InvalidBatchRequestException("Paczka ogłoszeń nie może być pusta");
+        }
+        if (size > maxBatchSize) {
+            throw new InvalidBatchRequestException("Paczka może zawierać maksymalnie " + maxBatchSize + " ogłoszeń");
+        }
+    }
+
+    private String firstViolation(Object dto) {
+        if (dto == null) {
+            return "Validation error: Element paczki nie może być pusty";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        return violations.isEmpty() ? null : "Validation error: " + violations.iterator().next().getMessage();
+    }
+
+    /**
+     * Strong ETag from the entity version: every edit changes it, so it can satisfy If-Match.
+     * The view count is left out on purpose, it is a counter next to the resource state.
+     */
+    private String etag(AdvertisementDto dto) {
+        return "\"" + dto.getWersja() + "\"";
+    }
+
+    private Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (ETag etag : ETag.parse(ifMatch)) {
+            if (etag.isWildcard()) {
+                return null;
+            }
+            if (etag.weak()) {
+                // If-Match uses strong comparison, a weak validator never matches
+                logger.debug("Ignoring weak ETag in If-Match: {}", etag);
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(etag.tag()));
+            } catch (NumberFormatException ex) {
+                logger.debug("Ignoring foreign ETag in If-Match: {}", etag);
+            }
+        }
+        return versions;
+    }
+
+    AdvertisementDto convertToDto(Advertisement advertisement) {
         return new AdvertisementDto(
                 advertisement.getId(),
                 advertisement.getTresc(),
                 advertisement.getDataDodania(),
-                advertisement.getIloscWyswietlen()
+                advertisement.getIloscWyswietlen(),
+                advertisement.getWersja()
         );
     }
 }
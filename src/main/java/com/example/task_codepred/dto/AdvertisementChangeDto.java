@@ -0,0 +1,28 @@
+package com.example.task_codepred.dto;
+
+import com.example.task_codepred.entity.AdvertisementChange;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdvertisementChangeDto {
+
+    private long offset;
+
+    private AdvertisementChange.Type type;
+
+    private Long id;
+
+    // null for DELETED
+    private String tresc;
+
+    private Long wersja;
+
+    private LocalDateTime changedAt;
+}
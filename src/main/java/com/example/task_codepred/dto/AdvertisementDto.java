@@ -27,4 +27,6 @@ public class AdvertisementDto {
     
     @Min(value = 0, message = "Liczba wyświetleń nie może być ujemna")
     private int iloscWyswietlen;
+
+    private Long wersja;
 }
@@ -0,0 +1,17 @@
+package com.example.task_codepred.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdvertisementLookupResultDto {
+
+    private List<AdvertisementDto> items;
+
+    private List<Long> notFound;
+}
@@ -0,0 +1,22 @@
+package com.example.task_codepred.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdvertisementPageDto {
+
+    private List<AdvertisementDto> items;
+
+    private boolean hasNext;
+
+    private LocalDateTime nextAfterDate;
+
+    private Long nextAfterId;
+}
@@ -0,0 +1,21 @@
+package com.example.task_codepred.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdvertisementSearchResultDto {
+
+    private List<AdvertisementDto> items;
+
+    private int page;
+
+    private int size;
+
+    private long total;
+}
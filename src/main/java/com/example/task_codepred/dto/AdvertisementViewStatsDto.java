@@ -0,0 +1,23 @@
+package com.example.task_codepred.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdvertisementViewStatsDto {
+
+    private Long id;
+
+    private String window;
+
+    private Instant from;
+
+    private Instant to;
+
+    private long views;
+}
@@ -0,0 +1,21 @@
+package com.example.task_codepred.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDto {
+
+    private int index;
+
+    private Long id;
+
+    private BatchItemStatus status;
+
+    private String message;
+
+    private AdvertisementDto advertisement;
+}
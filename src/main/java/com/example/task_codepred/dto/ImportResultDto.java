@@ -0,0 +1,24 @@
+package com.example.task_codepred.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+
+    private long acceptedCount;
+
+    private long rejectedCount;
+
+    private List<LineRangeDto> acceptedLines = new ArrayList<>();
+
+    private List<RejectedLineDto> rejectedLines = new ArrayList<>();
+
+    private boolean truncated;
+}
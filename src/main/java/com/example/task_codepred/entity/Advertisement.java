@@ -11,28 +11,37 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "advertisements")
+@Table(name = "advertisements", indexes = {
+        @Index(name = "idx_advertisements_data_dodania", columnList = "data_dodania, id"),
+        @Index(name = "idx_advertisements_ilosc_wyswietlen", columnList = "ilosc_wyswietlen DESC, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Advertisement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "advertisements_seq")
+    @SequenceGenerator(name = "advertisements_seq", sequenceName = "advertisements_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Treść ogłoszenia nie może być pusta")
     @Size(min = 10, max = 1000, message = "Treść ogłoszenia musi mieć od 10 do 1000 znaków")
-    @Column(nullable = false)
+    @Column(nullable = false, length = 1000)
     private String tresc;
 
     @Column(name = "data_dodania")
     private LocalDateTime dataDodania;
 
     @Min(value = 0, message = "Liczba wyświetleń nie może być ujemna")
-    @Column(name = "ilosc_wyswietlen")
+    @Column(name = "ilosc_wyswietlen", updatable = false)
     private int iloscWyswietlen = 0;
 
+    // not bumped by view counting, which writes ilosc_wyswietlen with plain SQL
+    @Version
+    @Column(name = "wersja")
+    private Long wersja;
+
     @PrePersist
     protected void onCreate() {
         this.dataDodania = LocalDateTime.now();
@@ -0,0 +1,54 @@
+package com.example.task_codepred.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for one change of one advertisement, inserted in the transaction that made the change.
+ * The offset is assigned when the row is published to {@code GET /ads/changes} subscribers.
+ */
+@Entity
+@Table(name = "advertisement_changes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdvertisementChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "advertisement_id", nullable = false)
+    private Long advertisementId;
+
+    // plain VARCHAR, Hibernate would otherwise declare a native enum column on H2
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private Type changeType;
+
+    @Column(length = 1000)
+    private String tresc;
+
+    @Column(name = "wersja")
+    private Long wersja;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // null until published
+    @Column(name = "change_offset", unique = true)
+    private Long changeOffset;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
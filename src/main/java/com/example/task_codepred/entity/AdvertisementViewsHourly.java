@@ -0,0 +1,42 @@
+package com.example.task_codepred.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Views of one advertisement in one hour (UTC), rolled up from the in-memory per-minute counts.
+ */
+@Entity
+@Table(name = "advertisement_views_hourly")
+@IdClass(AdvertisementViewsHourly.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdvertisementViewsHourly {
+
+    @Id
+    @Column(name = "advertisement_id")
+    private Long advertisementId;
+
+    @Id
+    @Column(name = "hour_start")
+    private LocalDateTime hourStart;
+
+    @Column(nullable = false)
+    private long views;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long advertisementId;
+
+        private LocalDateTime hourStart;
+    }
+}
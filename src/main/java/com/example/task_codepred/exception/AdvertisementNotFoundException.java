@@ -9,4 +9,16 @@ public class AdvertisementNotFoundException extends RuntimeException {
     public AdvertisementNotFoundException(Long id) {
         super("Advertisement with id " + id + " not found");
     }
+
+    private AdvertisementNotFoundException(Long id, boolean writableStackTrace) {
+        super("Advertisement with id " + id + " not found", null, false, writableStackTrace);
+    }
+
+    /**
+     * For ids that are known not to exist and may arrive in bulk (crawlers, stale links):
+     * no stack trace is captured.
+     */
+    public static AdvertisementNotFoundException withoutStackTrace(Long id) {
+        return new AdvertisementNotFoundException(id, false);
+    }
 }
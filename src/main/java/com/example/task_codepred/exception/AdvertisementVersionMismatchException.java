@@ -0,0 +1,8 @@
+package com.example.task_codepred.exception;
+
+public class AdvertisementVersionMismatchException extends RuntimeException {
+
+    public AdvertisementVersionMismatchException(Long id, Long currentVersion) {
+        super("Advertisement with id " + id + " has been modified, current version is " + currentVersion);
+    }
+}
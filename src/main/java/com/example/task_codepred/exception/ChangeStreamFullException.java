@@ -0,0 +1,8 @@
+package com.example.task_codepred.exception;
+
+public class ChangeStreamFullException extends RuntimeException {
+
+    public ChangeStreamFullException(int maxSubscribers) {
+        super("Osiągnięto limit " + maxSubscribers + " subskrybentów strumienia zmian, spróbuj ponownie później");
+    }
+}
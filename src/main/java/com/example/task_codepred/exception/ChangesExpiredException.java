@@ -0,0 +1,9 @@
+package com.example.task_codepred.exception;
+
+public class ChangesExpiredException extends RuntimeException {
+
+    public ChangesExpiredException(long since, long firstOffset) {
+        super("Zmiany po offsecie " + since + " zostały już usunięte, najstarszy dostępny offset to " + firstOffset
+                + ". Pobierz pełny stan przez GET /ads/export i wznów od ostatniego offsetu");
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.task_codepred.exception;
+
+public class InvalidBatchRequestException extends RuntimeException {
+
+    public InvalidBatchRequestException(String message) {
+        super(message);
+    }
+}
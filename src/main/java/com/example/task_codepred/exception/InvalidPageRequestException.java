@@ -0,0 +1,8 @@
+package com.example.task_codepred.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.task_codepred.health;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Reuses the last result of the delegate for {@code timeToLive}, so frequent probes
+ * do not run the underlying check (e.g. a database round trip) every time.
+ */
+public class CachingHealthIndicator implements HealthIndicator {
+
+    private final HealthIndicator delegate;
+    private final long timeToLiveNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Health cached;
+    private volatile long cachedAt;
+
+    public CachingHealthIndicator(HealthIndicator delegate, Duration timeToLive) {
+        this.delegate = delegate;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    @Override
+    public Health health() {
+        Health health = cached;
+        if (health != null && System.nanoTime() - cachedAt < timeToLiveNanos) {
+            return health;
+        }
+        lock.lock();
+        try {
+            if (cached == null || System.nanoTime() - cachedAt >= timeToLiveNanos) {
+                cached = delegate.health();
+                cachedAt = System.nanoTime();
+            }
+            return cached;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
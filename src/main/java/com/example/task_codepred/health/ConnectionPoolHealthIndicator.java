@@ -0,0 +1,47 @@
+package com.example.task_codepred.health;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+
+import com.example.task_codepred.config.AdmissionControlledDataSource;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Reports the pool as DOWN when more than {@code maxWaiting} callers are queued for a
+ * connection, counting both Hikari's own waiters and the JDBC admission gate.
+ */
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+    private final DataSource dataSource;
+    private final int maxWaiting;
+
+    public ConnectionPoolHealthIndicator(DataSource dataSource, int maxWaiting) {
+        this.dataSource = dataSource;
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Health health() {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        HikariPoolMXBean pool = hikari != null ? hikari.getHikariPoolMXBean() : null;
+        if (pool == null) {
+            return Health.unknown().withDetail("reason", "Connection pool not started").build();
+        }
+        int waiting = pool.getThreadsAwaitingConnection();
+        if (dataSource instanceof AdmissionControlledDataSource gate) {
+            waiting += gate.getQueueLength();
+        }
+        return (waiting > maxWaiting ? Health.down() : Health.up())
+                .withDetail("active", pool.getActiveConnections())
+                .withDetail("idle", pool.getIdleConnections())
+                .withDetail("max", hikari.getMaximumPoolSize())
+                .withDetail("waiting", waiting)
+                .withDetail("maxWaiting", maxWaiting)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.task_codepred.health;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Borrows a connection and validates it, giving up after {@code timeout}. Unlike the
+ * default DataSource indicator it cannot hang for the pool's connection timeout when the
+ * pool is exhausted, and a ping that is still stuck is reused instead of starting another.
+ */
+public class DatabasePingHealthIndicator implements HealthIndicator {
+
+    private final DataSource dataSource;
+    private final Duration timeout;
+    private final AtomicReference<CompletableFuture<Health>> inFlight = new AtomicReference<>();
+
+    public DatabasePingHealthIndicator(DataSource dataSource, Duration timeout) {
+        this.dataSource = dataSource;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Health health() {
+        CompletableFuture<Health> ping = inFlight.get();
+        if (ping == null || ping.isDone()) {
+            CompletableFuture<Health> started = new CompletableFuture<>();
+            if (inFlight.compareAndSet(ping, started)) {
+                Thread.ofVirtual().name("health-db-ping").start(() -> started.complete(ping()));
+            }
+            ping = inFlight.get();
+        }
+        try {
+            return ping.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            return Health.down().withDetail("error", "No response within " + timeout.toMillis() + " ms").build();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Health.down(ex).build();
+        } catch (ExecutionException ex) {
+            return Health.down(ex.getCause()).build();
+        }
+    }
+
+    private Health ping() {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean valid = connection.isValid((int) Math.max(1, timeout.toSeconds()));
+            return (valid ? Health.up() : Health.down())
+                    .withDetail("database", connection.getMetaData().getDatabaseProductName())
+                    .withDetail("responseTimeMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                    .build();
+        } catch (SQLException | RuntimeException ex) {
+            return Health.down(ex).build();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.task_codepred.health;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.task_codepred.logging.AccessLogWriter;
+import com.example.task_codepred.service.ViewCounter;
+
+/**
+ * Readiness checks, each cached for {@code ads.health.cache-ttl}. The contributor names
+ * (database, connectionPool, writeBacklog) are the bean names without the suffix.
+ */
+@Configuration
+public class HealthConfig {
+
+    @Value("${ads.health.cache-ttl:5s}")
+    private Duration cacheTtl;
+
+    @Bean
+    public HealthIndicator databaseHealthIndicator(DataSource dataSource,
+                                                   @Value("${ads.health.db.timeout:2s}") Duration timeout) {
+        return new CachingHealthIndicator(new DatabasePingHealthIndicator(dataSource, timeout), cacheTtl);
+    }
+
+    @Bean
+    public HealthIndicator connectionPoolHealthIndicator(DataSource dataSource,
+                                                         @Value("${ads.health.pool.max-waiting:20}") int maxWaiting) {
+        return new CachingHealthIndicator(new ConnectionPoolHealthIndicator(dataSource, maxWaiting), cacheTtl);
+    }
+
+    @Bean
+    public HealthIndicator writeBacklogHealthIndicator(ViewCounter viewCounter,
+                                                       ObjectProvider<AccessLogWriter> accessLogWriter,
+                                                       @Value("${ads.health.backlog.max-flush-lag:30s}") Duration maxFlushLag) {
+        return new CachingHealthIndicator(
+                new WriteBacklogHealthIndicator(viewCounter, accessLogWriter.getIfAvailable(), maxFlushLag), cacheTtl);
+    }
+}
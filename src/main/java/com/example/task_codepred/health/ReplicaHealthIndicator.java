@@ -0,0 +1,32 @@
+package com.example.task_codepred.health;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import com.example.task_codepred.routing.ReadWriteDataSources;
+
+/**
+ * Status of each read replica as of its last check. Always UP: reads fall back to the
+ * primary, so a replica outage costs capacity but not availability, and this indicator
+ * is not part of the readiness group.
+ */
+public class ReplicaHealthIndicator implements HealthIndicator {
+
+    private final ReadWriteDataSources readWriteDataSources;
+
+    public ReplicaHealthIndicator(ReadWriteDataSources readWriteDataSources) {
+        this.readWriteDataSources = readWriteDataSources;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = Health.up();
+        Map<String, Boolean> status = readWriteDataSources.replicaStatus();
+        status.forEach((name, healthy) -> builder.withDetail(name, healthy ? "UP" : "DOWN"));
+        return builder
+                .withDetail("readsFromPrimary", status.values().stream().noneMatch(Boolean::booleanValue))
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.task_codepred.health;
+
+import java.time.Duration;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import com.example.task_codepred.logging.AccessLogWriter;
+import com.example.task_codepred.service.ViewCounter;
+
+/**
+ * State of the in-memory write-behind queues. The number of pending views follows read
+ * traffic and is only reported; the instance is not ready once views have waited longer
+ * than {@code maxFlushLag} for a successful flush, which means flushes keep failing. The
+ * access log backlog is reported but never fails the check, a full buffer just drops entries.
+ */
+public class WriteBacklogHealthIndicator implements HealthIndicator {
+
+    private final ViewCounter viewCounter;
+    private final AccessLogWriter accessLogWriter;
+    private final Duration maxFlushLag;
+
+    public WriteBacklogHealthIndicator(ViewCounter viewCounter, AccessLogWriter accessLogWriter, Duration maxFlushLag) {
+        this.viewCounter = viewCounter;
+        this.accessLogWriter = accessLogWriter;
+        this.maxFlushLag = maxFlushLag;
+    }
+
+    @Override
+    public Health health() {
+        Duration unflushedFor = viewCounter.unflushedFor();
+        Health.Builder builder = unflushedFor.compareTo(maxFlushLag) > 0 ? Health.down() : Health.up();
+        builder.withDetail("pendingViews", viewCounter.pendingViews())
+                .withDetail("unflushedForMs", unflushedFor.toMillis())
+                .withDetail("maxFlushLagMs", maxFlushLag.toMillis());
+        if (accessLogWriter != null) {
+            builder.withDetail("accessLogBacklog", accessLogWriter.backlog())
+                    .withDetail("accessLogCapacity", accessLogWriter.capacity())
+                    .withDetail("accessLogDropped", accessLogWriter.dropped());
+        }
+        return builder.build();
+    }
+}
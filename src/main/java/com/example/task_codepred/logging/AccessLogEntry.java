@@ -0,0 +1,16 @@
+package com.example.task_codepred.logging;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccessLogEntry(
+        Instant timestamp,
+        String method,
+        String uri,
+        String query,
+        int status,
+        long durationMicros,
+        String payload) {
+}
@@ -0,0 +1,129 @@
+package com.example.task_codepred.logging;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records one access log entry per request. Only a sample of requests is logged, but
+ * errors and slow requests always are; payloads are captured for sampled requests only
+ * and truncated to {@code ads.access-log.max-payload-length} bytes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "ads.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogWriter accessLogWriter;
+    private final double sampleRate;
+    private final long slowThresholdMicros;
+    private final int maxPayloadLength;
+
+    public AccessLogFilter(AccessLogWriter accessLogWriter,
+                           @Value("${ads.access-log.sample-rate:1.0}") double sampleRate,
+                           @Value("${ads.access-log.slow-threshold:500ms}") Duration slowThreshold,
+                           @Value("${ads.access-log.max-payload-length:256}") int maxPayloadLength) {
+        this.accessLogWriter = accessLogWriter;
+        this.sampleRate = sampleRate;
+        this.slowThresholdMicros = TimeUnit.NANOSECONDS.toMicros(slowThreshold.toNanos());
+        this.maxPayloadLength = maxPayloadLength;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        HttpServletRequest requestToUse = sampled && maxPayloadLength > 0
+                ? new ContentCachingRequestWrapper(request, maxPayloadLength)
+                : request;
+        try {
+            filterChain.doFilter(requestToUse, response);
+        } finally {
+            if (requestToUse.isAsyncStarted()) {
+                requestToUse.getAsyncContext().addListener(new CompletionListener(requestToUse, response, start, sampled));
+            } else {
+                record(requestToUse, response, start, sampled);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long start, boolean sampled) {
+        long durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        int status = response.getStatus();
+        if (!sampled && status < 400 && durationMicros < slowThresholdMicros) {
+            return;
+        }
+        accessLogWriter.submit(new AccessLogEntry(
+                Instant.now(),
+                request.getMethod(),
+                request.getRequestURI(),
+                request.getQueryString(),
+                status,
+                durationMicros,
+                payload(request)));
+    }
+
+    private String payload(HttpServletRequest request) {
+        if (!(request instanceof ContentCachingRequestWrapper wrapper)) {
+            return null;
+        }
+        byte[] content = wrapper.getContentAsByteArray();
+        if (content.length == 0) {
+            return null;
+        }
+        int length = Math.min(content.length, maxPayloadLength);
+        String payload = new String(content, 0, length, StandardCharsets.UTF_8);
+        return request.getContentLengthLong() > length ? payload + "..." : payload;
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+        private final boolean sampled;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response, long start, boolean sampled) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+            this.sampled = sampled;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response, start, sampled);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
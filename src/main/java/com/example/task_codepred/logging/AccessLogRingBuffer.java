@@ -0,0 +1,75 @@
+package com.example.task_codepred.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free buffer with many producers (request threads) and a single consumer
+ * (the access log writer). A full buffer drops the entry instead of blocking the request.
+ */
+public class AccessLogRingBuffer {
+
+    private final AtomicReferenceArray<AccessLogEntry> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // advanced only by the consumer, after it has cleared the slot
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    public AccessLogRingBuffer(int capacity) {
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    public boolean offer(AccessLogEntry entry) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head.get() >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.setRelease((int) (claimed & mask), entry);
+        return true;
+    }
+
+    /**
+     * Must only be called from one thread at a time.
+     */
+    public int drain(Consumer<AccessLogEntry> consumer, int limit) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (position & mask);
+            AccessLogEntry entry = slots.getAcquire(index);
+            if (entry == null) {
+                // empty, or the producer that claimed this slot has not published it yet
+                break;
+            }
+            slots.set(index, null);
+            head.set(++position);
+            consumer.accept(entry);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
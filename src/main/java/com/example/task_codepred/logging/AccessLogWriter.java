@@ -0,0 +1,107 @@
+package com.example.task_codepred.logging;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Drains the access log buffer on a dedicated thread and writes one JSON line per request
+ * to the {@code access} logger, so request threads never wait on log I/O.
+ */
+@Component
+@ConditionalOnProperty(name = "ads.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogWriter implements SmartLifecycle {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("access");
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final int DRAIN_BATCH = 512;
+
+    private final AccessLogRingBuffer buffer;
+    private final ObjectMapper objectMapper;
+    private final long drainIntervalNanos;
+    private volatile boolean running;
+    private Thread thread;
+    private long reportedDropped;
+
+    public AccessLogWriter(ObjectMapper objectMapper,
+                           @Value("${ads.access-log.buffer-size:8192}") int bufferSize,
+                           @Value("${ads.access-log.drain-interval:200ms}") Duration drainInterval) {
+        this.buffer = new AccessLogRingBuffer(bufferSize);
+        this.objectMapper = objectMapper;
+        this.drainIntervalNanos = drainInterval.toNanos();
+    }
+
+    public boolean submit(AccessLogEntry entry) {
+        return buffer.offer(entry);
+    }
+
+    public long dropped() {
+        return buffer.dropped();
+    }
+
+    public int backlog() {
+        return buffer.size();
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("access-log-writer").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(Duration.ofSeconds(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            if (buffer.drain(this::write, DRAIN_BATCH) == 0) {
+                reportDropped();
+                LockSupport.parkNanos(drainIntervalNanos);
+            }
+        }
+        buffer.drain(this::write, Integer.MAX_VALUE);
+        reportDropped();
+    }
+
+    private void write(AccessLogEntry entry) {
+        try {
+            accessLogger.info(objectMapper.writeValueAsString(entry));
+        } catch (JsonProcessingException ex) {
+            logger.warn("Failed to write access log entry for {} {}", entry.method(), entry.uri(), ex);
+        }
+    }
+
+    private void reportDropped() {
+        long dropped = buffer.dropped();
+        if (dropped > reportedDropped) {
+            logger.warn("Access log buffer full, dropped {} entries", dropped - reportedDropped);
+            reportedDropped = dropped;
+        }
+    }
+}
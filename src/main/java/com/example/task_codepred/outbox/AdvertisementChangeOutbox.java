@@ -0,0 +1,72 @@
+package com.example.task_codepred.outbox;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.entity.AdvertisementChange;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes outbox rows in the caller's transaction, so a change is published if and only if it commits.
+ * Rows go through one JDBC batch instead of the persistence context, which keeps batch operations
+ * at a constant number of statements.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdvertisementChangeOutbox {
+
+    static final String INSERT_SQL = "INSERT INTO advertisement_changes "
+            + "(advertisement_id, change_type, tresc, wersja, changed_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AdvertisementChangeRelay relay;
+
+    /**
+     * Call after the changed rows are flushed: the row locks taken by the flush keep outbox ids
+     * of changes to the same advertisement in commit order.
+     */
+    public void append(AdvertisementChange.Type type, Collection<Advertisement> advertisements) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(advertisements.size());
+        for (Advertisement advertisement : advertisements) {
+            batchArgs.add(new Object[] { advertisement.getId(), type.name(), advertisement.getTresc(),
+                    advertisement.getWersja(), now });
+        }
+        insert(batchArgs);
+    }
+
+    public void appendDeleted(Collection<Long> ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            batchArgs.add(new Object[] { id, AdvertisementChange.Type.DELETED.name(), null, null, now });
+        }
+        insert(batchArgs);
+    }
+
+    private void insert(List<Object[]> batchArgs) {
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+        Assert.state(TransactionSynchronizationManager.isActualTransactionActive(),
+                "Outbox rows must be written in the transaction that makes the change");
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.task_codepred.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task_codepred.dto.AdvertisementChangeDto;
+import com.example.task_codepred.entity.AdvertisementChange;
+import com.example.task_codepred.repository.AdvertisementChangeRepository;
+
+/**
+ * Publishes committed outbox rows on a dedicated thread: each pass numbers the unpublished rows
+ * with the next offsets, commits, and hands them to {@link AdvertisementChangeStream}. The thread
+ * is woken after every commit that wrote outbox rows and otherwise polls every relay-interval,
+ * which also picks up rows left behind by a failed pass.
+ * <p>
+ * One relay per database: a second instance would fail on the unique offset and retry.
+ */
+@Component
+public class AdvertisementChangeRelay implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdvertisementChangeRelay.class);
+
+    private final AdvertisementChangeRepository changeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AdvertisementChangeStream changeStream;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final Duration retention;
+    // written by the relay thread only, -1 until read from the database
+    private volatile long lastOffset = -1;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    public AdvertisementChangeRelay(AdvertisementChangeRepository changeRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    AdvertisementChangeStream changeStream,
+                                    @Value("${ads.changes.relay-batch-size:500}") int batchSize,
+                                    @Value("${ads.changes.relay-interval:1s}") Duration pollInterval,
+                                    @Value("${ads.changes.retention:7d}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.changeStream = changeStream;
+        this.batchSize = batchSize;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.retention = retention;
+    }
+
+    public void wakeUp() {
+        Thread relayThread = thread;
+        if (relayThread != null) {
+            LockSupport.unpark(relayThread);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("change-relay").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread relayThread = thread;
+        LockSupport.unpark(relayThread);
+        try {
+            relayThread.join(Duration.ofSeconds(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            int published;
+            try {
+                published = publishPending();
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to publish advertisement changes, will retry", ex);
+                // the offsets may have been taken by another relay, read them again
+                lastOffset = -1;
+                published = 0;
+            }
+            if (published < batchSize) {
+                LockSupport.parkNanos(pollIntervalNanos);
+            }
+        }
+    }
+
+    int publishPending() {
+        List<AdvertisementChangeDto> published = transactionTemplate.execute(status -> {
+            if (lastOffset < 0) {
+                lastOffset = changeRepository.findLastOffset().orElse(0L);
+            }
+            List<AdvertisementChange> pending = changeRepository.findByChangeOffsetIsNullOrderById(Limit.of(batchSize));
+            List<AdvertisementChangeDto> events = new ArrayList<>(pending.size());
+            long offset = lastOffset + 1;
+            for (AdvertisementChange change : pending) {
+                // written back by dirty checking as one JDBC batch on commit
+                change.setChangeOffset(offset++);
+                events.add(AdvertisementChangeStream.toDto(change));
+            }
+            return events;
+        });
+        if (published.isEmpty()) {
+            return 0;
+        }
+        lastOffset = published.getLast().getOffset();
+        logger.debug("Published advertisement changes {} to {}", published.getFirst().getOffset(), lastOffset);
+        changeStream.publish(published);
+        return published.size();
+    }
+
+    /**
+     * Deletes published rows older than the retention, always keeping the newest one so offsets
+     * continue from it after a restart.
+     */
+    @Scheduled(initialDelayString = "${ads.changes.purge-interval:1h}", fixedDelayString = "${ads.changes.purge-interval:1h}")
+    public void purge() {
+        long keepFrom = lastOffset;
+        if (keepFrom <= 0) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> changeRepository.deletePublishedBefore(keepFrom, before));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} advertisement changes published before {}", deleted, before);
+        }
+    }
+}
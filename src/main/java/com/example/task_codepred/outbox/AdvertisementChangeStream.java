@@ -0,0 +1,215 @@
+package com.example.task_codepred.outbox;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.task_codepred.dto.AdvertisementChangeDto;
+import com.example.task_codepred.entity.AdvertisementChange;
+import com.example.task_codepred.exception.ChangeStreamFullException;
+import com.example.task_codepred.exception.ChangesExpiredException;
+import com.example.task_codepred.exception.InvalidPageRequestException;
+import com.example.task_codepred.repository.AdvertisementChangeRepository;
+import com.example.task_codepred.routing.ReadRouting;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans published changes out to SSE subscribers. Each subscriber first replays what it missed
+ * from the outbox table, then follows live changes through a bounded queue drained by its own
+ * virtual thread, so one slow client never delays the relay or the others. A subscriber whose
+ * queue overflows is disconnected; its client reconnects with Last-Event-ID and catches up from
+ * the table.
+ */
+@Component
+public class AdvertisementChangeStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdvertisementChangeStream.class);
+    private static final int REPLAY_BATCH = 200;
+    // queued to wake a sender whose subscriber was closed
+    private static final AdvertisementChangeDto CLOSED = new AdvertisementChangeDto();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AdvertisementChangeRepository changeRepository;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long heartbeatNanos;
+    private final Counter slowDisconnects;
+
+    public AdvertisementChangeStream(AdvertisementChangeRepository changeRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${ads.changes.subscriber-buffer:256}") int bufferSize,
+                                     @Value("${ads.changes.max-subscribers:100}") int maxSubscribers,
+                                     @Value("${ads.changes.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.changeRepository = changeRepository;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.slowDisconnects = Counter.builder("ads.changes.disconnected")
+                .description("Change stream subscribers disconnected because their buffer overflowed")
+                .tag("reason", "slow")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param since offset of the last change the client has seen, {@code null} to receive only new changes
+     */
+    public SseEmitter subscribe(Long since) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ChangeStreamFullException(maxSubscribers);
+        }
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        // registered before the starting offset is read, so no change falls between replay and live events
+        subscribers.add(subscriber);
+        long from;
+        try (ReadRouting.Scope scope = ReadRouting.primaryOnly()) {
+            from = startingOffset(since);
+        } catch (RuntimeException ex) {
+            subscribers.remove(subscriber);
+            throw ex;
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        senders.execute(() -> subscriber.run(from));
+        logger.info("Change stream subscriber started from offset {}, {} subscribers", from, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Called by the relay thread after the changes are committed, in offset order.
+     */
+    void publish(List<AdvertisementChangeDto> changes) {
+        for (Subscriber subscriber : subscribers) {
+            for (AdvertisementChangeDto change : changes) {
+                if (!subscriber.queue.offer(change)) {
+                    slowDisconnects.increment();
+                    logger.warn("Change stream subscriber fell {} changes behind, disconnecting", bufferSize);
+                    subscriber.close();
+                    break;
+                }
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+
+    private long startingOffset(Long since) {
+        long lastOffset = changeRepository.findLastOffset().orElse(0L);
+        if (since == null) {
+            return lastOffset;
+        }
+        if (since > lastOffset) {
+            throw new InvalidPageRequestException("Offset " + since + " jest większy niż offset ostatniej zmiany: " + lastOffset);
+        }
+        Optional<Long> firstOffset = changeRepository.findFirstOffset();
+        if (firstOffset.isPresent() && since + 1 < firstOffset.get()) {
+            throw new ChangesExpiredException(since, firstOffset.get());
+        }
+        return since;
+    }
+
+    static AdvertisementChangeDto toDto(AdvertisementChange change) {
+        return new AdvertisementChangeDto(
+                change.getChangeOffset(),
+                change.getChangeType(),
+                change.getAdvertisementId(),
+                change.getTresc(),
+                change.getWersja(),
+                change.getChangedAt()
+        );
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<AdvertisementChangeDto> queue = new ArrayBlockingQueue<>(bufferSize);
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void run(long from) {
+            long lastSent = from;
+            try {
+                // changes published meanwhile wait in the queue and those already replayed are skipped below;
+                // read from the primary, a lagging replica could miss changes published before registration
+                List<AdvertisementChange> replayed;
+                do {
+                    try (ReadRouting.Scope scope = ReadRouting.primaryOnly()) {
+                        replayed = changeRepository.findByChangeOffsetGreaterThanOrderByChangeOffset(lastSent, Limit.of(REPLAY_BATCH));
+                    }
+                    for (AdvertisementChange change : replayed) {
+                        send(toDto(change));
+                        lastSent = change.getChangeOffset();
+                    }
+                } while (replayed.size() == REPLAY_BATCH && !closed);
+
+                while (!closed) {
+                    AdvertisementChangeDto change = queue.poll(heartbeatNanos, TimeUnit.NANOSECONDS);
+                    if (change == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else if (change != CLOSED && change.getOffset() > lastSent) {
+                        send(change);
+                        lastSent = change.getOffset();
+                    }
+                }
+                emitter.complete();
+            } catch (IOException ex) {
+                logger.debug("Change stream subscriber disconnected at offset {}", lastSent);
+            } catch (InterruptedException ex) {
+                emitter.complete();
+            } catch (RuntimeException ex) {
+                logger.warn("Change stream subscriber failed at offset {}", lastSent, ex);
+                emitter.completeWithError(ex);
+            } finally {
+                close();
+            }
+        }
+
+        private void send(AdvertisementChangeDto change) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(change.getOffset()))
+                    .data(change, MediaType.APPLICATION_JSON));
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            queue.offer(CLOSED);
+        }
+    }
+}
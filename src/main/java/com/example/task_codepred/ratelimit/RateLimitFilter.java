@@ -0,0 +1,153 @@
+package com.example.task_codepred.ratelimit;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.task_codepred.config.ClientKeys;
+import com.example.task_codepred.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs in the security filter chain, before any controller: rejects clients over their
+ * read or write budget with 429 and sheds load with 503 once {@code maxConcurrentRequests}
+ * are already in progress. An async response (streamed export) keeps its slot until it
+ * completes. Actuator endpoints are never limited so probes keep working, and the change
+ * stream only counts against the rate budget: its long-lived connections are capped by
+ * {@code ads.changes.max-subscribers} instead.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    // POST only because the id list may not fit in a URL
+    private static final Set<String> READ_ONLY_POST_PATHS = Set.of("/ads/lookup");
+    private static final Set<String> UNCAPPED_PATHS = Set.of("/ads/changes");
+
+    private final RateLimiter rateLimiter;
+    private final int maxConcurrentRequests;
+    private final Semaphore concurrency;
+    private final ClientKeys clientKeys;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimiter rateLimiter, int maxConcurrentRequests, ClientKeys clientKeys,
+                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.concurrency = new Semaphore(maxConcurrentRequests);
+        this.clientKeys = clientKeys;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean write = !READ_METHODS.contains(request.getMethod()) && !READ_ONLY_POST_PATHS.contains(path);
+        long waitNanos = rateLimiter.tryAcquire(clientKeys.of(request), write);
+        if (waitNanos > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "rate_limited",
+                    "Przekroczono limit żądań, spróbuj ponownie później");
+            return;
+        }
+        if (UNCAPPED_PATHS.contains(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrency.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "overloaded",
+                    "Serwer jest przeciążony, spróbuj ponownie później");
+            return;
+        }
+        boolean handedOff = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                handedOff = true;
+            }
+        } finally {
+            if (!handedOff) {
+                concurrency.release();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String reason, String message)
+            throws IOException {
+        Counter.builder("ads.requests.rejected")
+                .description("Requests rejected by the rate limiter before reaching a controller")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(LocalDateTime.now(), status.value(), message));
+    }
+
+    public int inFlightRequests() {
+        return maxConcurrentRequests - concurrency.availablePermits();
+    }
+
+    /**
+     * Releases the slot of an async request once; an error or timeout is followed by onComplete.
+     */
+    private final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // listeners are dropped when async processing is started again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrency.release();
+            }
+        }
+    }
+}
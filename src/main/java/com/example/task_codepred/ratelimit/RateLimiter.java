@@ -0,0 +1,101 @@
+package com.example.task_codepred.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-client token buckets with separate read and write budgets. Buckets are created on
+ * first use and evicted once they have been idle (and therefore full) for
+ * {@code ads.rate-limit.idle-timeout}. Once {@code ads.rate-limit.max-clients} buckets of a
+ * kind exist, new clients share one overflow bucket until idle ones are evicted.
+ */
+@Component
+@ConditionalOnProperty(name = "ads.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+    // client keys are prefixed with "key:" or "ip:", so this never collides with one
+    static final String OVERFLOW_KEY = "overflow";
+
+    private final ConcurrentMap<String, TokenBucket> readBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenBucket> writeBuckets = new ConcurrentHashMap<>();
+    private final int readCapacity;
+    private final double readRefillPerSecond;
+    private final int writeCapacity;
+    private final double writeRefillPerSecond;
+    private final long idleNanos;
+    private final int maxClients;
+    private final LongSupplier clock;
+
+    @Autowired
+    public RateLimiter(@Value("${ads.rate-limit.read.capacity:100}") int readCapacity,
+                       @Value("${ads.rate-limit.read.refill-per-second:50}") double readRefillPerSecond,
+                       @Value("${ads.rate-limit.write.capacity:20}") int writeCapacity,
+                       @Value("${ads.rate-limit.write.refill-per-second:10}") double writeRefillPerSecond,
+                       @Value("${ads.rate-limit.idle-timeout:5m}") Duration idleTimeout,
+                       @Value("${ads.rate-limit.max-clients:100000}") int maxClients) {
+        this(readCapacity, readRefillPerSecond, writeCapacity, writeRefillPerSecond, idleTimeout, maxClients,
+                System::nanoTime);
+    }
+
+    RateLimiter(int readCapacity, double readRefillPerSecond, int writeCapacity, double writeRefillPerSecond,
+                Duration idleTimeout, int maxClients, LongSupplier clock) {
+        this.readCapacity = readCapacity;
+        this.readRefillPerSecond = readRefillPerSecond;
+        this.writeCapacity = writeCapacity;
+        this.writeRefillPerSecond = writeRefillPerSecond;
+        this.idleNanos = idleTimeout.toNanos();
+        this.maxClients = maxClients;
+        this.clock = clock;
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise the nanos until the client may retry
+     */
+    public long tryAcquire(String clientKey, boolean write) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = write
+                ? bucket(writeBuckets, clientKey, writeCapacity, writeRefillPerSecond, now)
+                : bucket(readBuckets, clientKey, readCapacity, readRefillPerSecond, now);
+        return bucket.tryAcquire(now);
+    }
+
+    // the size check races with other new clients, so the cap may be exceeded by a few buckets
+    private TokenBucket bucket(ConcurrentMap<String, TokenBucket> buckets, String clientKey,
+                               int capacity, double refillPerSecond, long now) {
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        String key = buckets.size() < maxClients ? clientKey : OVERFLOW_KEY;
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond, now));
+    }
+
+    // a request racing with eviction may take a token from a bucket that has just been
+    // removed; that bucket was full anyway, so at most one extra token is granted
+    @Scheduled(fixedDelayString = "${ads.rate-limit.idle-timeout:5m}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        int before = readBuckets.size() + writeBuckets.size();
+        readBuckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        writeBuckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        int evicted = before - readBuckets.size() - writeBuckets.size();
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    public int trackedClients() {
+        return readBuckets.size() + writeBuckets.size();
+    }
+}
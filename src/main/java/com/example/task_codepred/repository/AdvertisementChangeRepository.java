@@ -0,0 +1,31 @@
+package com.example.task_codepred.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import com.example.task_codepred.entity.AdvertisementChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AdvertisementChangeRepository extends JpaRepository<AdvertisementChange, Long> {
+
+    List<AdvertisementChange> findByChangeOffsetIsNullOrderById(Limit limit);
+
+    List<AdvertisementChange> findByChangeOffsetGreaterThanOrderByChangeOffset(long offset, Limit limit);
+
+    @Query("SELECT MIN(c.changeOffset) FROM AdvertisementChange c")
+    Optional<Long> findFirstOffset();
+
+    @Query("SELECT MAX(c.changeOffset) FROM AdvertisementChange c")
+    Optional<Long> findLastOffset();
+
+    @Modifying
+    @Query("DELETE FROM AdvertisementChange c WHERE c.changeOffset < :offset AND c.changedAt < :before")
+    int deletePublishedBefore(@Param("offset") long offset, @Param("before") LocalDateTime before);
+}
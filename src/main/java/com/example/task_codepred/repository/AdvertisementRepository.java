@@ -1,9 +1,90 @@
 package com.example.task_codepred.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.example.task_codepred.dto.AdvertisementDto;
 import com.example.task_codepred.entity.Advertisement;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface AdvertisementRepository extends JpaRepository<Advertisement, Long> {
+
+    String SELECT_DTO = "SELECT new com.example.task_codepred.dto.AdvertisementDto("
+            + "a.id, a.tresc, a.dataDodania, a.iloscWyswietlen, a.wersja) FROM Advertisement a ";
+
+    @Transactional
+    @Query(value = "SELECT ilosc_wyswietlen FROM FINAL TABLE ("
+            + "UPDATE advertisements SET ilosc_wyswietlen = ilosc_wyswietlen + 1 WHERE id = :id)",
+            nativeQuery = true)
+    Optional<Integer> incrementViews(@Param("id") Long id);
+
+    /**
+     * @return {@code [id, ilosc_wyswietlen]} for every row that still exists
+     */
+    @Transactional
+    @Query(value = "SELECT id, ilosc_wyswietlen FROM FINAL TABLE ("
+            + "UPDATE advertisements SET ilosc_wyswietlen = ilosc_wyswietlen + 1 WHERE id IN (:ids))",
+            nativeQuery = true)
+    List<Object[]> incrementViewsIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + "WHERE a.id = :id")
+    Optional<AdvertisementDto> findDtoById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + "WHERE a.id IN :ids")
+    List<AdvertisementDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + "ORDER BY a.dataDodania, a.id")
+    List<AdvertisementDto> findFirstPage(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO
+            + "WHERE a.dataDodania > :afterDate OR (a.dataDodania = :afterDate AND a.id > :afterId) "
+            + "ORDER BY a.dataDodania, a.id")
+    List<AdvertisementDto> findPageAfter(@Param("afterDate") LocalDateTime afterDate,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Query("SELECT a.wersja FROM Advertisement a WHERE a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM Advertisement a WHERE a.id = :id AND a.wersja IN :versions")
+    int deleteByIdAndWersjaIn(@Param("id") Long id, @Param("versions") Collection<Long> versions);
+
+    @Query("SELECT a.id FROM Advertisement a WHERE a.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a FROM Advertisement a ORDER BY a.iloscWyswietlen DESC, a.id")
+    List<Advertisement> findMostViewed(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Advertisement a ORDER BY a.id")
+    Stream<Advertisement> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.id FROM Advertisement a")
+    Stream<Long> streamAllIds();
 }
@@ -0,0 +1,20 @@
+package com.example.task_codepred.repository;
+
+import java.time.LocalDateTime;
+
+import com.example.task_codepred.entity.AdvertisementViewsHourly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface AdvertisementViewsHourlyRepository
+        extends JpaRepository<AdvertisementViewsHourly, AdvertisementViewsHourly.Key> {
+
+    @Transactional(readOnly = true)
+    @Query("SELECT COALESCE(SUM(h.views), 0) FROM AdvertisementViewsHourly h "
+            + "WHERE h.advertisementId = :id AND h.hourStart >= :from")
+    long sumViewsSince(@Param("id") Long id, @Param("from") LocalDateTime from);
+}
@@ -0,0 +1,37 @@
+package com.example.task_codepred.routing;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary instead of a
+ * replica: for reads whose result outlives the request (caches, in-memory indexes) and
+ * for clients inside their read-your-writes window. Scopes nest.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static Scope primaryOnly() {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            } else {
+                PRIMARY_ONLY.set(previous);
+            }
+        };
+    }
+
+    public static boolean isPrimaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.task_codepred.routing;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * The primary connection pool and the read replica pools. Reads go round-robin to the
+ * replicas that passed their last health check; a replica that fails to hand out a
+ * connection is taken out of rotation until the next successful check, and with no
+ * healthy replica reads fall back to the primary.
+ */
+public class ReadWriteDataSources implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteDataSources.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final DataSource reads = new ReplicaRoutingDataSource();
+
+    public ReadWriteDataSources(DataSource primary, List<DataSource> replicas, Duration validationTimeout) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    /**
+     * Target for read-only connections: a healthy replica, or the primary.
+     */
+    public DataSource reads() {
+        return reads;
+    }
+
+    @Scheduled(initialDelayString = "${ads.datasource.replica-check-interval:5s}",
+               fixedDelayString = "${ads.datasource.replica-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException | RuntimeException ex) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                logger.warn("Read replica {} is now {}", replica.name, healthy ? "UP" : "DOWN");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    public Map<String, Boolean> replicaStatus() {
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        replicas.forEach(replica -> status.put(replica.name, replica.healthy));
+        return status;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection readConnection() throws SQLException {
+        if (!ReadRouting.isPrimaryOnly()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException ex) {
+                    replica.healthy = false;
+                    logger.warn("Read replica {} is now DOWN, reading from the primary until it recovers", replica.name, ex);
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final class ReplicaRoutingDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return readConnection();
+        }
+    }
+}
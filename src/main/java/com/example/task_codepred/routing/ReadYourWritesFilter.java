@@ -0,0 +1,64 @@
+package com.example.task_codepred.routing;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.task_codepred.config.ClientKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sends every read of a client that made a write in the last
+ * {@code ads.datasource.read-your-writes-window} to the primary, so it never sees a
+ * replica that has not caught up with its own change yet.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "ads.datasource.replica-urls")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Cache<String, Boolean> recentWriters;
+    private final ClientKeys clientKeys;
+
+    public ReadYourWritesFilter(@Value("${ads.datasource.read-your-writes-window:5s}") Duration window,
+                                ClientKeys clientKeys) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+        this.clientKeys = clientKeys;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientKeys.of(request);
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (!write && recentWriters.getIfPresent(client) == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (ReadRouting.Scope scope = ReadRouting.primaryOnly()) {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (write) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.task_codepred.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of immutable advertisement snapshots. View counts are not cached
+ * authoritatively; they are resolved by the {@link ViewCounter} on every read.
+ */
+@Component
+public class AdvertisementCache {
+
+    static final String CACHE_NAME = "advertisements";
+
+    private final Cache<Long, AdvertisementSnapshot> cache;
+
+    public AdvertisementCache(@Value("${ads.cache.maximum-size:10000}") long maximumSize,
+                              @Value("${ads.cache.time-to-live:10m}") Duration timeToLive,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<AdvertisementSnapshot> get(Long id, Function<Long, Optional<AdvertisementSnapshot>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Loads all ids missing from the cache with one call to {@code loader}; ids the loader
+     * does not return are absent from the result.
+     */
+    public Map<Long, AdvertisementSnapshot> getAll(Iterable<Long> ids,
+                                                   Function<Set<? extends Long>, Map<Long, AdvertisementSnapshot>> loader) {
+        return cache.getAll(ids, loader);
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+        // a concurrent read may reload the old row before this transaction commits
+        AfterCommit.run(() -> cache.invalidate(id));
+    }
+
+    /**
+     * Raises the cached view count to a total that has been written to the database, so a
+     * snapshot read after the write-behind counter forgets the advertisement is not stale.
+     */
+    public void updateViews(Long id, int views) {
+        cache.asMap().computeIfPresent(id,
+                (key, snapshot) -> views > snapshot.getIloscWyswietlen() ? snapshot.withIloscWyswietlen(views) : snapshot);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.task_codepred.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.task_codepred.dto.AdvertisementDto;
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.repository.AdvertisementRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class AdvertisementExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdvertisementExportService.class);
+    private static final int FLUSH_EVERY = 500;
+
+    private final AdvertisementRepository advertisementRepository;
+    private final ViewCounter viewCounter;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream outputStream) throws IOException {
+        logger.info("Exporting advertisements as NDJSON");
+        ObjectWriter writer = objectMapper.writerFor(AdvertisementDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long exported = 0;
+
+        try (Stream<Advertisement> advertisements = advertisementRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Advertisement> iterator = advertisements.iterator();
+            while (iterator.hasNext()) {
+                Advertisement advertisement = iterator.next();
+                writer.writeValue(generator, new AdvertisementDto(
+                        advertisement.getId(),
+                        advertisement.getTresc(),
+                        advertisement.getDataDodania(),
+                        viewCounter.currentViews(advertisement.getId(), advertisement.getIloscWyswietlen()),
+                        advertisement.getWersja()
+                ));
+                generator.writeRaw('\n');
+                // keep the persistence context from growing with the table
+                entityManager.detach(advertisement);
+
+                if (++exported % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        logger.info("Exported {} advertisements", exported);
+        return exported;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.task_codepred.service;
+
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task_codepred.repository.AdvertisementRepository;
+import com.example.task_codepred.routing.ReadRouting;
+
+/**
+ * Bloom filter over existing advertisement ids, so lookups of ids that were never
+ * created are answered without a database round trip. Deleted ids cannot be removed
+ * from a Bloom filter; they stay "maybe present" until the next periodic rebuild.
+ * Until the first build completes every id is treated as possibly present.
+ */
+@Component
+public class AdvertisementIdFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdvertisementIdFilter.class);
+
+    private final AdvertisementRepository advertisementRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long minimumCapacity;
+    private final double falsePositiveRate;
+    // not synchronized: the rebuild streams from JDBC and would pin a virtual thread carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile LongBloomFilter current;
+    // receives every id added while a rebuild is streaming, so none is lost on the swap
+    private volatile LongBloomFilter next;
+
+    public AdvertisementIdFilter(AdvertisementRepository advertisementRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${ads.id-filter.minimum-capacity:100000}") long minimumCapacity,
+                                 @Value("${ads.id-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.advertisementRepository = advertisementRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.minimumCapacity = minimumCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ads.id-filter.rebuild-interval:30m}",
+               fixedDelayString = "${ads.id-filter.rebuild-interval:30m}")
+    public void rebuild() {
+        rebuildLock.lock();
+        // from the primary: ids missing on a lagging replica would be answered with 404
+        try (ReadRouting.Scope scope = ReadRouting.primaryOnly()) {
+            long started = System.nanoTime();
+            // twice the current size leaves room for growth until the next rebuild
+            long capacity = Math.max(minimumCapacity, advertisementRepository.count() * 2);
+            LongBloomFilter rebuilt = new LongBloomFilter(capacity, falsePositiveRate);
+            next = rebuilt;
+            Long added = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<Long> ids = advertisementRepository.streamAllIds()) {
+                    Iterator<Long> iterator = ids.iterator();
+                    while (iterator.hasNext()) {
+                        rebuilt.put(iterator.next());
+                        count++;
+                    }
+                }
+                return count;
+            });
+            current = rebuilt;
+            next = null;
+            logger.info("Id filter built with {} advertisements ({} bits) in {} ms",
+                    added, rebuilt.bitCount(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void add(Long id) {
+        // next before current: the swap publishes current before clearing next, so a null next
+        // means current already is the rebuilt filter (or the rebuild has not started streaming)
+        LongBloomFilter rebuilding = next;
+        LongBloomFilter filter = current;
+        if (rebuilding != null) {
+            rebuilding.put(id);
+        }
+        if (filter != null) {
+            filter.put(id);
+        }
+    }
+
+    /**
+     * @return {@code false} only if the advertisement certainly does not exist
+     */
+    public boolean mightContain(Long id) {
+        LongBloomFilter filter = current;
+        return filter == null || filter.mightContain(id);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.task_codepred.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.example.task_codepred.dto.CreateAdvertisementDto;
+import com.example.task_codepred.dto.ImportResultDto;
+import com.example.task_codepred.dto.LineRangeDto;
+import com.example.task_codepred.dto.RejectedLineDto;
+import com.example.task_codepred.entity.Advertisement;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Imports NDJSON line by line and persists accepted lines in fixed-size batches,
+ * each in its own transaction. The request body is only read as fast as batches are
+ * written, so a slow database throttles the client instead of filling the heap.
+ * Lines are read into one reused buffer of {@code ads.import.max-line-length} bytes;
+ * longer lines are skipped and rejected without being held in memory.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdvertisementImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdvertisementImportService.class);
+    private static final int END_OF_INPUT = -1;
+    private static final int TOO_LONG = -2;
+
+    private final AdvertisementService advertisementService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${ads.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ads.import.max-reported-lines:1000}")
+    private int maxReportedLines;
+
+    @Value("${ads.import.max-line-length:16384}")
+    private int maxLineLength;
+
+    public ImportResultDto importNdjson(InputStream inputStream) throws IOException {
+        logger.info("Importing advertisements from NDJSON in batches of {}", batchSize);
+        // one object per line: anything after it on the same line rejects the line
+        ObjectReader reader = objectMapper.readerFor(CreateAdvertisementDto.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        ImportResultDto result = new ImportResultDto();
+        List<Advertisement> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        InputStream input = new BufferedInputStream(inputStream);
+        byte[] line = new byte[maxLineLength];
+        long lineNumber = 0;
+        int length;
+        while ((length = readLine(input, line)) != END_OF_INPUT) {
+            lineNumber++;
+            if (length == TOO_LONG) {
+                reject(result, lineNumber, "Linia jest dłuższa niż " + maxLineLength + " bajtów");
+                continue;
+            }
+            if (isBlank(line, length)) {
+                continue;
+            }
+
+            CreateAdvertisementDto createDto;
+            try {
+                createDto = reader.readValue(line, 0, length);
+            } catch (JsonProcessingException ex) {
+                reject(result, lineNumber, "Nieprawidłowy JSON: " + ex.getOriginalMessage());
+                continue;
+            }
+            String violation = firstViolation(createDto);
+            if (violation != null) {
+                reject(result, lineNumber, violation);
+                continue;
+            }
+
+            Advertisement advertisement = new Advertisement();
+            advertisement.setTresc(createDto.getTresc());
+            batch.add(advertisement);
+            batchLines.add(lineNumber);
+            if (batch.size() == batchSize) {
+                persistBatch(result, batch, batchLines);
+            }
+        }
+        persistBatch(result, batch, batchLines);
+
+        logger.info("Import finished, {} lines accepted, {} rejected", result.getAcceptedCount(), result.getRejectedCount());
+        return result;
+    }
+
+    /**
+     * @return the line length without the line terminator, {@link #TOO_LONG} if the line did not
+     *         fit in the buffer (it is consumed up to its end), or {@link #END_OF_INPUT}
+     */
+    private static int readLine(InputStream input, byte[] buffer) throws IOException {
+        int length = 0;
+        boolean tooLong = false;
+        int next;
+        while ((next = input.read()) != -1 && next != '\n') {
+            if (length < buffer.length) {
+                buffer[length++] = (byte) next;
+            } else {
+                tooLong = true;
+            }
+        }
+        if (tooLong) {
+            return TOO_LONG;
+        }
+        if (next == -1 && length == 0) {
+            return END_OF_INPUT;
+        }
+        return length > 0 && buffer[length - 1] == '\r' ? length - 1 : length;
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] != ' ' && line[i] != '\t' && line[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void persistBatch(ImportResultDto result, List<Advertisement> batch, List<Long> batchLines) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            advertisementService.addAll(batch);
+            for (Long lineNumber : batchLines) {
+                accept(result, lineNumber);
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("Failed to persist import batch of {} lines", batch.size(), ex);
+            for (Long lineNumber : batchLines) {
+                reject(result, lineNumber, "Błąd zapisu do bazy danych");
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private void accept(ImportResultDto result, long lineNumber) {
+        result.setAcceptedCount(result.getAcceptedCount() + 1);
+        List<LineRangeDto> ranges = result.getAcceptedLines();
+        LineRangeDto last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+        if (last != null && last.getTo() == lineNumber - 1) {
+            last.setTo(lineNumber);
+        } else if (ranges.size() < maxReportedLines) {
+            ranges.add(new LineRangeDto(lineNumber, lineNumber));
+        } else {
+            result.setTruncated(true);
+        }
+    }
+
+    private void reject(ImportResultDto result, long lineNumber, String message) {
+        result.setRejectedCount(result.getRejectedCount() + 1);
+        if (result.getRejectedLines().size() < maxReportedLines) {
+            result.getRejectedLines().add(new RejectedLineDto(lineNumber, message));
+        } else {
+            result.setTruncated(true);
+        }
+    }
+
+    private String firstViolation(CreateAdvertisementDto createDto) {
+        if (createDto == null) {
+            return "Validation error: Linia nie zawiera ogłoszenia";
+        }
+        Set<ConstraintViolation<CreateAdvertisementDto>> violations = validator.validate(createDto);
+        return violations.isEmpty() ? null : "Validation error: " + violations.iterator().next().getMessage();
+    }
+}
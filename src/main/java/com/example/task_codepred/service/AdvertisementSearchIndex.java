@@ -0,0 +1,316 @@
+package com.example.task_codepred.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.repository.AdvertisementRepository;
+import com.example.task_codepred.routing.ReadRouting;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * In-process inverted index over advertisement content: every token maps to a posting
+ * list of advertisement ids. Built from the repository at startup and kept up to date by
+ * {@link AdvertisementService} after each committed change. Each entry remembers the
+ * version it was indexed at, so the startup build never overwrites a newer commit, and
+ * ids deleted while the build runs are not brought back by it.
+ */
+@Component
+public class AdvertisementSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdvertisementSearchIndex.class);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String PREFIX_WILDCARD = "*";
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::views).reversed()
+            .thenComparingLong(Hit::id);
+
+    private final ConcurrentSkipListMap<String, Posting> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Indexed> indexedById = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> viewsById = new ConcurrentHashMap<>();
+    // ids removed while the startup build runs, so it does not index them from its snapshot
+    private final Set<Long> removedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+
+    private final AdvertisementRepository advertisementRepository;
+    private final ViewCounter viewCounter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AdvertisementSearchIndex(AdvertisementRepository advertisementRepository,
+                                    ViewCounter viewCounter,
+                                    EntityManager entityManager,
+                                    TransactionTemplate transactionTemplate) {
+        this.advertisementRepository = advertisementRepository;
+        this.viewCounter = viewCounter;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        Long indexed;
+        building = true;
+        // from the primary: the index is only built once, a lagging replica would leave gaps
+        try (ReadRouting.Scope scope = ReadRouting.primaryOnly()) {
+            indexed = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<Advertisement> advertisements = advertisementRepository.streamAll()) {
+                    Iterator<Advertisement> iterator = advertisements.iterator();
+                    while (iterator.hasNext()) {
+                        Advertisement advertisement = iterator.next();
+                        apply(advertisement.getId(), advertisement.getTresc(),
+                                viewCounter.currentViews(advertisement.getId(), advertisement.getIloscWyswietlen()),
+                                advertisement.getWersja(), true);
+                        entityManager.detach(advertisement);
+                        count++;
+                    }
+                }
+                return count;
+            });
+        } finally {
+            building = false;
+            removedDuringBuild.clear();
+        }
+        logger.info("Search index built with {} advertisements and {} tokens in {} ms",
+                indexed, postings.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Indexes committed content; ignored when the advertisement is already indexed at a newer version.
+     */
+    public void index(Long id, String tresc, int views, Long wersja) {
+        apply(id, tresc, views, wersja, false);
+    }
+
+    public void remove(Long id) {
+        indexedById.compute(id, (key, indexed) -> {
+            if (building) {
+                removedDuringBuild.add(id);
+            }
+            if (indexed != null) {
+                for (String token : indexed.tokens()) {
+                    removePosting(token, id);
+                }
+                viewsById.remove(id);
+            }
+            return null;
+        });
+    }
+
+    public void updateViews(Long id, int views) {
+        viewsById.computeIfPresent(id, (key, previous) -> views);
+    }
+
+    /**
+     * Finds advertisements containing every term of the query and returns the {@code limit}
+     * most viewed of them, most viewed first, with the number of all matches.
+     * A term ending with {@code *} matches every token starting with it.
+     */
+    public Hits search(String query, int limit) {
+        List<Term> terms = new ArrayList<>();
+        for (String term : query.trim().split("\\s+")) {
+            boolean prefix = term.endsWith(PREFIX_WILDCARD);
+            List<String> tokens = new ArrayList<>(tokenize(prefix ? term.substring(0, term.length() - 1) : term));
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean lastToken = i == tokens.size() - 1;
+                terms.add(prefix && lastToken ? prefixTerm(tokens.get(i)) : exactTerm(tokens.get(i)));
+            }
+        }
+        if (terms.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+
+        // sizes are read once per term, when it is created
+        terms.sort(Comparator.comparingLong(Term::size));
+        Term smallest = terms.get(0);
+        // worst kept hit at the head, so a better one can replace it
+        PriorityQueue<Hit> top = new PriorityQueue<>(RANKING.reversed());
+        int total = 0;
+        for (int p = 0; p < smallest.postings().size(); p++) {
+            for (Long id : smallest.postings().get(p).ids) {
+                if (smallest.containsBefore(p, id) || !containsInAll(terms, id)) {
+                    continue;
+                }
+                total++;
+                Hit hit = new Hit(id, viewsById.getOrDefault(id, 0));
+                if (top.size() < limit) {
+                    top.add(hit);
+                } else if (limit > 0 && RANKING.compare(hit, top.peek()) < 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+        }
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return new Hits(ranked.stream().map(Hit::id).toList(), total);
+    }
+
+    public int size() {
+        return indexedById.size();
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void apply(Long id, String tresc, int views, Long wersja, boolean fromBuild) {
+        Set<String> tokens = tokenize(tresc);
+        indexedById.compute(id, (key, previous) -> {
+            if (fromBuild && removedDuringBuild.contains(id)) {
+                return previous;
+            }
+            if (previous != null && isNewer(previous.wersja(), wersja)) {
+                return previous;
+            }
+            if (previous != null) {
+                for (String token : previous.tokens()) {
+                    if (!tokens.contains(token)) {
+                        removePosting(token, id);
+                    }
+                }
+            }
+            for (String token : tokens) {
+                addPosting(token, id);
+            }
+            viewsById.put(id, views);
+            return new Indexed(tokens, wersja);
+        });
+    }
+
+    private static boolean isNewer(Long indexed, Long candidate) {
+        return indexed != null && candidate != null && indexed > candidate;
+    }
+
+    private Term exactTerm(String token) {
+        Posting posting = postings.get(token);
+        return posting != null ? new Term(List.of(posting), posting.size) : new Term(List.of(), 0);
+    }
+
+    private Term prefixTerm(String prefix) {
+        List<Posting> matching = new ArrayList<>(
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values());
+        long size = 0;
+        for (Posting posting : matching) {
+            size += posting.size;
+        }
+        return new Term(matching, size);
+    }
+
+    private boolean containsInAll(List<Term> terms, Long id) {
+        for (int i = 1; i < terms.size(); i++) {
+            if (!terms.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addPosting(String token, Long id) {
+        while (true) {
+            Posting posting = postings.computeIfAbsent(token, t -> new Posting());
+            synchronized (posting) {
+                if (!posting.dropped) {
+                    if (posting.ids.add(id)) {
+                        posting.size++;
+                    }
+                    return;
+                }
+            }
+            // emptied and being dropped by a concurrent remove, retry with a fresh list
+            postings.remove(token, posting);
+        }
+    }
+
+    private void removePosting(String token, Long id) {
+        Posting posting = postings.get(token);
+        if (posting == null) {
+            return;
+        }
+        synchronized (posting) {
+            if (posting.ids.remove(id)) {
+                posting.size--;
+            }
+            if (posting.size > 0) {
+                return;
+            }
+            // marked under the lock, so no add can land in a list that is leaving the map
+            posting.dropped = true;
+        }
+        postings.remove(token, posting);
+    }
+
+    public record Hits(List<Long> ids, int total) {
+    }
+
+    private record Hit(Long id, int views) {
+    }
+
+    private record Indexed(Set<String> tokens, Long wersja) {
+    }
+
+    /**
+     * Ids of one token. Writers update it under its monitor, readers only use {@link #ids}.
+     */
+    private static final class Posting {
+
+        private final Set<Long> ids = ConcurrentHashMap.newKeySet();
+        private volatile int size;
+        private boolean dropped;
+    }
+
+    /**
+     * One query term: the posting lists of its token, or of every token matching a prefix.
+     */
+    private record Term(List<Posting> postings, long size) {
+
+        boolean contains(Long id) {
+            for (Posting posting : postings) {
+                if (posting.ids.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // an id in several posting lists of a prefix term is only counted in the first
+        boolean containsBefore(int index, Long id) {
+            for (int i = 0; i < index; i++) {
+                if (postings.get(i).ids.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
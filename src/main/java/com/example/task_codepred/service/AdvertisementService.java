@@ -1,13 +1,40 @@
 package com.example.task_codepred.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.task_codepred.dto.AdvertisementDto;
+import com.example.task_codepred.dto.AdvertisementViewStatsDto;
 import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.entity.AdvertisementChange;
 import com.example.task_codepred.exception.AdvertisementNotFoundException;
+import com.example.task_codepred.exception.AdvertisementVersionMismatchException;
+import com.example.task_codepred.outbox.AdvertisementChangeOutbox;
 import com.example.task_codepred.repository.AdvertisementRepository;
+import com.example.task_codepred.routing.ReadRouting;
+
+import io.micrometer.core.annotation.Timed;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,16 +44,58 @@ import lombok.RequiredArgsConstructor;
 public class AdvertisementService {
 
     private static final Logger logger = LoggerFactory.getLogger(AdvertisementService.class);
+    static final String OPERATION_TIMER = "ads.service.operation";
     private final AdvertisementRepository advertisementRepository;
+    private final ViewCounter viewCounter;
+    private final AdvertisementCache advertisementCache;
+    private final AdvertisementSearchIndex searchIndex;
+    private final TopViewedTracker topViewedTracker;
+    private final AdvertisementIdFilter idFilter;
+    private final AdvertisementViewStats viewStats;
+    private final AdvertisementChangeOutbox changeOutbox;
 
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "add" }, histogram = true)
     public Advertisement add(Advertisement advertisement) {
-        logger.info("Adding new advertisement with content: {}", advertisement.getTresc());
+        logger.info("Adding new advertisement");
+        logger.debug("New advertisement content: {}", advertisement.getTresc());
         Advertisement saved = advertisementRepository.save(advertisement);
+        changeOutbox.append(AdvertisementChange.Type.CREATED, List.of(saved));
+        // added before commit so readers never see a false miss, and again after commit
+        // in case an id filter rebuild started in between
+        idFilter.add(saved.getId());
+        AfterCommit.run(() -> {
+            idFilter.add(saved.getId());
+            searchIndex.index(saved.getId(), saved.getTresc(), saved.getIloscWyswietlen(), saved.getWersja());
+            topViewedTracker.record(saved.getId(), saved.getIloscWyswietlen());
+        });
         logger.info("Advertisement added successfully with ID: {} at {}", saved.getId(), saved.getDataDodania());
         return saved;
     }
 
+    public List<Advertisement> addAll(List<Advertisement> advertisements) {
+        logger.info("Adding batch of {} advertisements", advertisements.size());
+        List<Advertisement> saved = advertisementRepository.saveAll(advertisements);
+        changeOutbox.append(AdvertisementChange.Type.CREATED, saved);
+        saved.forEach(advertisement -> idFilter.add(advertisement.getId()));
+        AfterCommit.run(() -> saved.forEach(advertisement -> {
+            idFilter.add(advertisement.getId());
+            searchIndex.index(advertisement.getId(), advertisement.getTresc(), advertisement.getIloscWyswietlen(),
+                    advertisement.getWersja());
+            topViewedTracker.record(advertisement.getId(), advertisement.getIloscWyswietlen());
+        }));
+        logger.info("Batch of {} advertisements added successfully", saved.size());
+        return saved;
+    }
+
     public Advertisement update(Long id, Advertisement updated) {
+        return update(id, updated, null);
+    }
+
+    /**
+     * @param expectedVersions versions the client expects (If-Match), {@code null} for an unconditional update
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "update" }, histogram = true)
+    public Advertisement update(Long id, Advertisement updated, Set<Long> expectedVersions) {
         logger.info("Updating advertisement with ID: {}", id);
         
         Advertisement existing = advertisementRepository.findById(id)
@@ -34,38 +103,256 @@ public class AdvertisementService {
                     logger.warn("Advertisement not found with ID: {}", id);
                     return new AdvertisementNotFoundException(id);
                 });
+        if (expectedVersions != null && !expectedVersions.contains(existing.getWersja())) {
+            logger.warn("Advertisement with ID: {} is at version {}, expected one of {}", id, existing.getWersja(), expectedVersions);
+            throw new AdvertisementVersionMismatchException(id, existing.getWersja());
+        }
         
         existing.setTresc(updated.getTresc());
         
         Advertisement saved = advertisementRepository.save(existing);
+        // flush now so the returned copy carries the incremented version
+        advertisementRepository.flush();
+        advertisementCache.evict(id);
+        Advertisement result = withViewCount(saved, viewCounter.currentViews(id, saved.getIloscWyswietlen()));
+        changeOutbox.append(AdvertisementChange.Type.UPDATED, List.of(result));
+        AfterCommit.run(() -> searchIndex.index(id, result.getTresc(), result.getIloscWyswietlen(), result.getWersja()));
         logger.info("Advertisement updated successfully with ID: {} at {}", saved.getId(), saved.getDataDodania());
-        return saved;
+        return result;
+    }
+
+    public Map<Long, Advertisement> updateAll(Map<Long, String> trescById) {
+        logger.info("Updating batch of {} advertisements", trescById.size());
+        Map<Long, Advertisement> updated = new HashMap<>();
+        List<Advertisement> found = advertisementRepository.findAllById(trescById.keySet());
+        found.forEach(existing -> existing.setTresc(trescById.get(existing.getId())));
+        advertisementRepository.flush();
+        changeOutbox.append(AdvertisementChange.Type.UPDATED, found);
+        for (Advertisement existing : found) {
+            advertisementCache.evict(existing.getId());
+            updated.put(existing.getId(), withViewCount(existing,
+                    viewCounter.currentViews(existing.getId(), existing.getIloscWyswietlen())));
+        }
+        AfterCommit.run(() -> updated.values().forEach(advertisement ->
+                searchIndex.index(advertisement.getId(), advertisement.getTresc(), advertisement.getIloscWyswietlen(),
+                        advertisement.getWersja())));
+        logger.info("Batch update finished, {} of {} advertisements found", updated.size(), trescById.size());
+        return updated;
     }
 
     public void delete(Long id) {
+        delete(id, null);
+    }
+
+    /**
+     * @param expectedVersions versions the client expects (If-Match), {@code null} for an unconditional delete
+     */
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "delete" }, histogram = true)
+    public void delete(Long id, Set<Long> expectedVersions) {
         logger.info("Deleting advertisement with ID: {}", id);
-        if (!advertisementRepository.existsById(id)) {
-            logger.warn("Attempted to delete non-existent advertisement with ID: {}", id);
-            throw new AdvertisementNotFoundException(id);
+        if (expectedVersions == null) {
+            if (!advertisementRepository.existsById(id)) {
+                logger.warn("Attempted to delete non-existent advertisement with ID: {}", id);
+                throw new AdvertisementNotFoundException(id);
+            }
+            advertisementRepository.deleteById(id);
+            // take the row lock before the outbox row, as the conditional delete below does
+            advertisementRepository.flush();
+        } else if (expectedVersions.isEmpty() || advertisementRepository.deleteByIdAndWersjaIn(id, expectedVersions) == 0) {
+            Long currentVersion = advertisementRepository.findVersionById(id)
+                    .orElseThrow(() -> {
+                        logger.warn("Attempted to delete non-existent advertisement with ID: {}", id);
+                        return new AdvertisementNotFoundException(id);
+                    });
+            logger.warn("Advertisement with ID: {} is at version {}, expected one of {}", id, currentVersion, expectedVersions);
+            throw new AdvertisementVersionMismatchException(id, currentVersion);
         }
-        advertisementRepository.deleteById(id);
+        changeOutbox.appendDeleted(List.of(id));
+        viewCounter.discard(id);
+        viewStats.discard(id);
+        advertisementCache.evict(id);
+        AfterCommit.run(() -> {
+            searchIndex.remove(id);
+            topViewedTracker.evict(id);
+        });
         logger.info("Advertisement deleted successfully with ID: {}", id);
     }
 
-    public Advertisement getById(Long id) {
+    public List<Long> deleteAll(Collection<Long> ids) {
+        logger.info("Deleting batch of {} advertisements", ids.size());
+        List<Long> existingIds = advertisementRepository.findExistingIds(ids);
+        if (!existingIds.isEmpty()) {
+            advertisementRepository.deleteAllByIdInBatch(existingIds);
+            changeOutbox.appendDeleted(existingIds);
+        }
+        for (Long id : existingIds) {
+            viewCounter.discard(id);
+            viewStats.discard(id);
+            advertisementCache.evict(id);
+        }
+        AfterCommit.run(() -> existingIds.forEach(id -> {
+            searchIndex.remove(id);
+            topViewedTracker.evict(id);
+        }));
+        logger.info("Batch delete finished, {} of {} advertisements deleted", existingIds.size(), ids.size());
+        return existingIds;
+    }
+
+    // no surrounding transaction: the content is read through a read-only projection
+    // and the view is recorded as a separate write
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "getById" }, histogram = true)
+    public AdvertisementDto getById(Long id) {
+        if (!idFilter.mightContain(id)) {
+            logger.debug("Advertisement with ID: {} rejected by the id filter", id);
+            throw AdvertisementNotFoundException.withoutStackTrace(id);
+        }
         logger.info("Retrieving advertisement with ID: {}", id);
-        Advertisement advertisement = advertisementRepository.findById(id)
+        AdvertisementSnapshot snapshot = advertisementCache.get(id, this::loadSnapshot)
                 .orElseThrow(() -> {
                     logger.warn("Advertisement not found with ID: {}", id);
                     return new AdvertisementNotFoundException(id);
                 });
         
-        int oldViewCount = advertisement.getIloscWyswietlen();
-        advertisement.setIloscWyswietlen(oldViewCount + 1);
-        advertisementRepository.save(advertisement);
+        int viewCount = viewCounter.recordView(id, snapshot.getIloscWyswietlen());
+        viewStats.record(id);
+        searchIndex.updateViews(id, viewCount);
+        topViewedTracker.record(id, viewCount);
         
-        logger.info("Advertisement retrieved successfully with ID: {}, view count incremented from {} to {}", 
-                   id, oldViewCount, advertisement.getIloscWyswietlen());
-        return advertisement;
+        logger.info("Advertisement retrieved successfully with ID: {}, view count: {}", id, viewCount);
+        return new AdvertisementDto(snapshot.getId(), snapshot.getTresc(), snapshot.getDataDodania(), viewCount,
+                snapshot.getWersja());
+    }
+
+    /**
+     * Multi-get counterpart of {@link #getById}: advertisements missing from the cache are
+     * loaded with one IN query and all views are recorded in one batch. Ids that do not
+     * exist are left out of the result, which keeps the order of {@code ids}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = OPERATION_TIMER, extraTags = { "operation", "getByIds" }, histogram = true)
+    public List<AdvertisementDto> getByIds(Collection<Long> ids) {
+        logger.info("Retrieving {} advertisements by ID", ids.size());
+        List<Long> candidates = ids.stream()
+                .filter(idFilter::mightContain)
+                .toList();
+        Map<Long, AdvertisementSnapshot> snapshots = candidates.isEmpty()
+                ? Map.of()
+                : advertisementCache.getAll(candidates, this::loadSnapshots);
+
+        Map<Long, Integer> persistedViews = new LinkedHashMap<>();
+        for (Long id : candidates) {
+            AdvertisementSnapshot snapshot = snapshots.get(id);
+            if (snapshot != null) {
+                persistedViews.put(id, snapshot.getIloscWyswietlen());
+            }
+        }
+        Map<Long, Integer> viewCounts = viewCounter.recordViews(persistedViews);
+
+        List<AdvertisementDto> found = new ArrayList<>(viewCounts.size());
+        for (Long id : persistedViews.keySet()) {
+            Integer viewCount = viewCounts.get(id);
+            if (viewCount == null) {
+                // deleted between the read and the view update
+                continue;
+            }
+            viewStats.record(id);
+            searchIndex.updateViews(id, viewCount);
+            topViewedTracker.record(id, viewCount);
+            AdvertisementSnapshot snapshot = snapshots.get(id);
+            found.add(new AdvertisementDto(snapshot.getId(), snapshot.getTresc(), snapshot.getDataDodania(), viewCount,
+                    snapshot.getWersja()));
+        }
+        logger.info("Retrieved {} of {} advertisements by ID", found.size(), ids.size());
+        return found;
+    }
+
+    /**
+     * Views in the last {@code window}, without counting a view.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AdvertisementViewStatsDto getViewStats(Long id, Duration window) {
+        logger.info("Retrieving view statistics of advertisement with ID: {} for the last {}", id, window);
+        if (!idFilter.mightContain(id)) {
+            logger.debug("Advertisement with ID: {} rejected by the id filter", id);
+            throw AdvertisementNotFoundException.withoutStackTrace(id);
+        }
+        if (advertisementCache.get(id, this::loadSnapshot).isEmpty()) {
+            logger.warn("Advertisement not found with ID: {}", id);
+            throw new AdvertisementNotFoundException(id);
+        }
+        return viewStats.viewsInWindow(id, window);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AdvertisementDto> findPage(LocalDateTime afterDate, Long afterId, int limit) {
+        logger.info("Listing up to {} advertisements after ({}, {})", limit, afterDate, afterId);
+        Pageable pageable = PageRequest.of(0, limit);
+        List<AdvertisementDto> page = afterDate == null
+                ? advertisementRepository.findFirstPage(pageable)
+                : advertisementRepository.findPageAfter(afterDate, afterId, pageable);
+        page.forEach(this::applyCurrentViews);
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<AdvertisementDto> search(String query, int page, int size) {
+        logger.info("Searching advertisements for '{}', page {} of size {}", query, page, size);
+        // only the hits up to the end of the requested page are ranked
+        int limit = (int) Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+        AdvertisementSearchIndex.Hits hits = searchIndex.search(query, limit);
+        List<Long> ranked = hits.ids();
+        int from = (int) Math.min((long) page * size, ranked.size());
+        List<Long> pageIds = ranked.subList(from, Math.min(from + size, ranked.size()));
+        return new PageImpl<>(findAllInOrder(pageIds), PageRequest.of(page, size), hits.total());
+    }
+
+    @Transactional(readOnly = true)
+    public List<AdvertisementDto> getTopViewed(int n) {
+        logger.info("Retrieving {} most viewed advertisements", n);
+        return findAllInOrder(topViewedTracker.top(n));
+    }
+
+    private List<AdvertisementDto> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, AdvertisementDto> found = advertisementRepository.findDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(AdvertisementDto::getId, Function.identity()));
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(this::applyCurrentViews)
+                .toList();
+    }
+
+    // cached snapshots are read from the primary, a lagging replica would keep a stale
+    // copy cached after the evicting write
+    private Optional<AdvertisementSnapshot> loadSnapshot(Long id) {
+        try (ReadRouting.Scope scope = ReadRouting.primaryOnly()) {
+            return advertisementRepository.findDtoById(id).map(AdvertisementSnapshot::from);
+        }
+    }
+
+    private Map<Long, AdvertisementSnapshot> loadSnapshots(Set<? extends Long> ids) {
+        try (ReadRouting.Scope scope = ReadRouting.primaryOnly()) {
+            return advertisementRepository.findDtosByIdIn(List.copyOf(ids)).stream()
+                    .collect(Collectors.toMap(AdvertisementDto::getId, AdvertisementSnapshot::from));
+        }
+    }
+
+    private AdvertisementDto applyCurrentViews(AdvertisementDto dto) {
+        dto.setIloscWyswietlen(viewCounter.currentViews(dto.getId(), dto.getIloscWyswietlen()));
+        return dto;
+    }
+
+    private Advertisement withViewCount(Advertisement advertisement, int viewCount) {
+        return new Advertisement(
+                advertisement.getId(),
+                advertisement.getTresc(),
+                advertisement.getDataDodania(),
+                viewCount,
+                advertisement.getWersja()
+        );
     }
 }
@@ -0,0 +1,35 @@
+package com.example.task_codepred.service;
+
+import java.time.LocalDateTime;
+
+import com.example.task_codepred.dto.AdvertisementDto;
+import com.example.task_codepred.entity.Advertisement;
+
+import lombok.Value;
+import lombok.With;
+
+@Value
+public class AdvertisementSnapshot {
+
+    Long id;
+    String tresc;
+    LocalDateTime dataDodania;
+    @With
+    int iloscWyswietlen;
+    Long wersja;
+
+    public static AdvertisementSnapshot from(Advertisement advertisement) {
+        return new AdvertisementSnapshot(
+                advertisement.getId(),
+                advertisement.getTresc(),
+                advertisement.getDataDodania(),
+                advertisement.getIloscWyswietlen(),
+                advertisement.getWersja()
+        );
+    }
+
+    public static AdvertisementSnapshot from(AdvertisementDto dto) {
+        return new AdvertisementSnapshot(dto.getId(), dto.getTresc(), dto.getDataDodania(), dto.getIloscWyswietlen(),
+                dto.getWersja());
+    }
+}
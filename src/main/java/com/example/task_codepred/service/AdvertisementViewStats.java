@@ -0,0 +1,231 @@
+package com.example.task_codepred.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task_codepred.dto.AdvertisementViewStatsDto;
+import com.example.task_codepred.repository.AdvertisementViewsHourlyRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Views per advertisement per minute, kept in a small in-memory ring per advertisement
+ * and periodically rolled up into {@code advertisement_views_hourly}. Windows that fit in
+ * the ring are answered from memory; longer ones from the rollups plus the minutes that
+ * have not been rolled up yet.
+ */
+@Component
+public class AdvertisementViewStats {
+
+    static final String ROLLUP_SQL = "MERGE INTO advertisement_views_hourly t "
+            + "USING (VALUES (CAST(? AS BIGINT), CAST(? AS TIMESTAMP(6)), CAST(? AS BIGINT))) "
+            + "s(advertisement_id, hour_start, views) "
+            + "ON t.advertisement_id = s.advertisement_id AND t.hour_start = s.hour_start "
+            + "WHEN MATCHED THEN UPDATE SET views = t.views + s.views "
+            + "WHEN NOT MATCHED THEN INSERT (advertisement_id, hour_start, views) "
+            + "VALUES (s.advertisement_id, s.hour_start, s.views)";
+
+    // the ring holds the current minute and the 63 before it
+    static final int MINUTES_IN_MEMORY = 64;
+    private static final long MILLIS_PER_MINUTE = 60_000;
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(AdvertisementViewStats.class);
+
+    private final Map<Long, MinuteRing> ringsById = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AdvertisementViewsHourlyRepository hourlyRepository;
+    private final LongSupplier currentTimeMillis;
+    // not synchronized: a JDBC call inside a monitor would pin the carrier of a virtual thread
+    private final ReentrantLock rollupLock = new ReentrantLock();
+
+    @Autowired
+    public AdvertisementViewStats(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  AdvertisementViewsHourlyRepository hourlyRepository) {
+        this(jdbcTemplate, transactionTemplate, hourlyRepository, System::currentTimeMillis);
+    }
+
+    AdvertisementViewStats(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           AdvertisementViewsHourlyRepository hourlyRepository,
+                           LongSupplier currentTimeMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.hourlyRepository = hourlyRepository;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    public void record(Long id) {
+        long minute = currentMinute();
+        ringsById.computeIfAbsent(id, key -> new MinuteRing(minute)).increment(minute);
+    }
+
+    public void discard(Long id) {
+        ringsById.remove(id);
+    }
+
+    public AdvertisementViewStatsDto viewsInWindow(Long id, Duration window) {
+        long now = currentMinute();
+        long minutes = Math.max(1, (window.toSeconds() + 59) / 60);
+        MinuteRing ring = ringsById.get(id);
+
+        if (minutes <= MINUTES_IN_MEMORY) {
+            long from = now - minutes + 1;
+            long views = ring == null ? 0 : ring.sum(from, now);
+            return new AdvertisementViewStatsDto(id, window.toString(), minuteStart(from), minuteStart(now + 1), views);
+        }
+
+        // rollups are hourly, so the window is widened to the start of its first hour;
+        // during a rollup the minutes being written may briefly be counted twice
+        long fromHour = Math.floorDiv(now - minutes + 1, 60) * 60;
+        long rolledUp = hourlyRepository.sumViewsSince(id, hourStart(fromHour));
+        long pending = ring == null ? 0 : ring.sum(Math.max(ring.rolledUpThrough + 1, now - MINUTES_IN_MEMORY + 1), now);
+        return new AdvertisementViewStatsDto(id, window.toString(), minuteStart(fromHour), minuteStart(now + 1),
+                rolledUp + pending);
+    }
+
+    @Scheduled(fixedDelayString = "${ads.stats.rollup-interval:1m}")
+    public void rollUp() {
+        // only completed minutes, the current one is still being counted
+        rollUpThrough(currentMinute() - 1);
+    }
+
+    void rollUpThrough(long lastMinute) {
+        rollupLock.lock();
+        try {
+            doRollUp(lastMinute);
+        } finally {
+            rollupLock.unlock();
+        }
+    }
+
+    private void doRollUp(long lastMinute) {
+        long oldestInMemory = currentMinute() - MINUTES_IN_MEMORY + 1;
+        List<MinuteRing> rolled = new ArrayList<>();
+        List<Object[]> batchArgs = new ArrayList<>();
+        ringsById.forEach((id, ring) -> {
+            long first = Math.max(ring.rolledUpThrough + 1, oldestInMemory);
+            if (first > lastMinute) {
+                return;
+            }
+            Map<Long, Long> viewsByHour = new TreeMap<>();
+            for (long minute = first; minute <= lastMinute; minute++) {
+                long views = ring.count(minute);
+                if (views > 0) {
+                    viewsByHour.merge(Math.floorDiv(minute, 60) * 60, views, Long::sum);
+                }
+            }
+            viewsByHour.forEach((hour, views) -> batchArgs.add(new Object[] { id, hourStart(hour), views }));
+            rolled.add(ring);
+        });
+        if (rolled.isEmpty()) {
+            return;
+        }
+
+        if (!batchArgs.isEmpty()) {
+            try {
+                transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(ROLLUP_SQL, batchArgs));
+            } catch (DataAccessException ex) {
+                logger.warn("Failed to roll up {} hourly view counts, will retry on next rollup", batchArgs.size(), ex);
+                return;
+            }
+        }
+        rolled.forEach(ring -> ring.rolledUpThrough = lastMinute);
+
+        // a view racing with eviction may land in a ring that has just been removed and be lost;
+        // the ring had no views for an hour, so this is rare and costs at most a few views
+        ringsById.values().removeIf(ring -> ring.rolledUpThrough >= ring.lastMinute
+                && ring.lastMinute < oldestInMemory);
+        logger.debug("Rolled up {} hourly view counts", batchArgs.size());
+    }
+
+    @PreDestroy
+    public void rollUpOnShutdown() {
+        logger.info("Rolling up view statistics of {} advertisements before shutdown", ringsById.size());
+        rollUpThrough(currentMinute());
+    }
+
+    public int trackedAdvertisements() {
+        return ringsById.size();
+    }
+
+    private long currentMinute() {
+        return currentTimeMillis.getAsLong() / MILLIS_PER_MINUTE;
+    }
+
+    private static Instant minuteStart(long minute) {
+        return Instant.ofEpochMilli(minute * MILLIS_PER_MINUTE);
+    }
+
+    private static LocalDateTime hourStart(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * One slot per minute, each holding the minute number in the high bits and the view
+     * count in the low 24 bits, so a slot left over from an older minute is recognised
+     * and reset with the same CAS that counts the view.
+     */
+    private static final class MinuteRing {
+
+        private final AtomicLongArray slots = new AtomicLongArray(MINUTES_IN_MEMORY);
+        // written only under the rollup lock
+        private volatile long rolledUpThrough;
+        private volatile long lastMinute;
+
+        private MinuteRing(long createdMinute) {
+            this.rolledUpThrough = createdMinute - 1;
+            this.lastMinute = createdMinute;
+        }
+
+        private void increment(long minute) {
+            int index = (int) (minute & (MINUTES_IN_MEMORY - 1));
+            long slot;
+            long updated;
+            do {
+                slot = slots.get(index);
+                long count = slot >>> COUNT_BITS == minute ? slot & COUNT_MASK : 0;
+                if (count == COUNT_MASK) {
+                    return;
+                }
+                updated = (minute << COUNT_BITS) | (count + 1);
+            } while (!slots.compareAndSet(index, slot, updated));
+            lastMinute = minute;
+        }
+
+        private long count(long minute) {
+            long slot = slots.get((int) (minute & (MINUTES_IN_MEMORY - 1)));
+            return slot >>> COUNT_BITS == minute ? slot & COUNT_MASK : 0;
+        }
+
+        private long sum(long fromMinute, long toMinute) {
+            long views = 0;
+            for (long minute = fromMinute; minute <= toMinute; minute++) {
+                views += count(minute);
+            }
+            return views;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.task_codepred.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Collects advertisement views in memory and writes them to the database in batches,
+ * so a read never turns into a row-level write transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "ads.views.write-behind", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class BufferedViewCounter implements ViewCounter {
+
+    static final String FLUSH_SQL = "UPDATE advertisements SET ilosc_wyswietlen = ilosc_wyswietlen + ? WHERE id = ?";
+
+    private static final Logger logger = LoggerFactory.getLogger(BufferedViewCounter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AdvertisementCache advertisementCache;
+    // advertisements with views not yet flushed; an entry left idle for a whole flush interval is dropped
+    private final Map<Long, ViewCount> counts = new ConcurrentHashMap<>();
+    private final LongAdder pendingTotal = new LongAdder();
+    // not synchronized: a JDBC call inside a monitor would pin the carrier of a virtual thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // moving a delta from pending to flushed touches two fields; readers validate against this
+    // so they never see the delta counted twice or not at all
+    private final StampedLock moveLock = new StampedLock();
+    private volatile long lastFlushedNanos = System.nanoTime();
+
+    @Override
+    public int recordView(Long id, int persistedViews) {
+        int base = persistedViews;
+        while (true) {
+            int initialViews = base;
+            ViewCount count = counts.computeIfAbsent(id, key -> new ViewCount(initialViews));
+            if (count.tryIncrement()) {
+                pendingTotal.increment();
+                return current(count);
+            }
+            // retired and about to leave the map; its total may be newer than the caller's snapshot
+            base = Math.max(base, (int) count.flushed.get());
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public int currentViews(Long id, int persistedViews) {
+        ViewCount count = counts.get(id);
+        return count != null ? current(count) : persistedViews;
+    }
+
+    @Override
+    public void discard(Long id) {
+        ViewCount count = counts.get(id);
+        if (count != null) {
+            retire(id, count);
+        }
+    }
+
+    @Override
+    public long pendingViews() {
+        return pendingTotal.sum();
+    }
+
+    @Override
+    public Duration unflushedFor() {
+        return pendingTotal.sum() > 0 ? Duration.ofNanos(System.nanoTime() - lastFlushedNanos) : Duration.ZERO;
+    }
+
+    @Scheduled(fixedDelayString = "${ads.views.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void doFlush() {
+        List<Long> ids = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        List<Object[]> batchArgs = new ArrayList<>();
+        counts.forEach((id, count) -> {
+            long delta = count.pending();
+            if (delta > 0) {
+                ids.add(id);
+                deltas.add(delta);
+                batchArgs.add(new Object[] { delta, id });
+            } else if (count.pending.compareAndSet(0, ViewCount.RETIRED)) {
+                // no views since the previous flush, which already put the total into the cached
+                // snapshot, so readers pick it up from there
+                counts.remove(id, count);
+            }
+        });
+        if (batchArgs.isEmpty()) {
+            lastFlushedNanos = System.nanoTime();
+            return;
+        }
+
+        int[] updated;
+        try {
+            updated = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batchArgs));
+        } catch (DataAccessException ex) {
+            logger.warn("Failed to flush {} pending view counts, will retry on next flush", batchArgs.size(), ex);
+            return;
+        }
+
+        lastFlushedNanos = System.nanoTime();
+        long stamp = moveLock.writeLock();
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                Long id = ids.get(i);
+                ViewCount count = counts.get(id);
+                if (count == null) {
+                    continue;
+                }
+                if (updated != null && updated[i] == 0) {
+                    retire(id, count);
+                    continue;
+                }
+                long delta = deltas.get(i);
+                long flushed = count.flushed.addAndGet(delta);
+                if (count.subtract(delta)) {
+                    pendingTotal.add(-delta);
+                    advertisementCache.updateViews(id, (int) flushed);
+                }
+            }
+        } finally {
+            moveLock.unlockWrite(stamp);
+        }
+        logger.debug("Flushed view counts for {} advertisements", ids.size());
+    }
+
+    private void retire(Long id, ViewCount count) {
+        long pending = count.pending.getAndSet(ViewCount.RETIRED);
+        if (pending > 0) {
+            pendingTotal.add(-pending);
+        }
+        counts.remove(id, count);
+    }
+
+    private int current(ViewCount count) {
+        long stamp = moveLock.tryOptimisticRead();
+        int views = count.current();
+        if (moveLock.validate(stamp)) {
+            return views;
+        }
+        stamp = moveLock.readLock();
+        try {
+            return count.current();
+        } finally {
+            moveLock.unlockRead(stamp);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing {} pending views before shutdown", pendingViews());
+        flush();
+    }
+
+    private static final class ViewCount {
+
+        // pending value of an entry that was removed from the map and takes no more views
+        private static final long RETIRED = -1;
+
+        private final AtomicLong flushed;
+        private final AtomicLong pending = new AtomicLong();
+
+        private ViewCount(int persistedViews) {
+            this.flushed = new AtomicLong(persistedViews);
+        }
+
+        private boolean tryIncrement() {
+            long current;
+            do {
+                current = pending.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!pending.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private boolean subtract(long delta) {
+            long current;
+            do {
+                current = pending.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!pending.compareAndSet(current, current - delta));
+            return true;
+        }
+
+        private long pending() {
+            return Math.max(pending.get(), 0);
+        }
+
+        private int current() {
+            return (int) (flushed.get() + pending());
+        }
+    }
+}
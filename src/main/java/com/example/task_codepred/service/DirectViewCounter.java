@@ -0,0 +1,57 @@
+package com.example.task_codepred.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.task_codepred.exception.AdvertisementNotFoundException;
+import com.example.task_codepred.repository.AdvertisementRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Increments the view count in the database on every view, using a single atomic
+ * UPDATE that returns the new value instead of a read-modify-write of the entity.
+ */
+@Component
+@ConditionalOnProperty(name = "ads.views.write-behind", havingValue = "false")
+@RequiredArgsConstructor
+public class DirectViewCounter implements ViewCounter {
+
+    private final AdvertisementRepository advertisementRepository;
+
+    @Override
+    public int recordView(Long id, int persistedViews) {
+        return advertisementRepository.incrementViews(id)
+                .orElseThrow(() -> new AdvertisementNotFoundException(id));
+    }
+
+    // one UPDATE for all ids instead of one per advertisement
+    @Override
+    public Map<Long, Integer> recordViews(Map<Long, Integer> persistedViewsById) {
+        Map<Long, Integer> viewCounts = new HashMap<>();
+        if (persistedViewsById.isEmpty()) {
+            return viewCounts;
+        }
+        for (Object[] row : advertisementRepository.incrementViewsIn(persistedViewsById.keySet())) {
+            viewCounts.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        return viewCounts;
+    }
+
+    @Override
+    public int currentViews(Long id, int persistedViews) {
+        return persistedViews;
+    }
+
+    @Override
+    public void discard(Long id) {
+    }
+
+    @Override
+    public long pendingViews() {
+        return 0;
+    }
+}
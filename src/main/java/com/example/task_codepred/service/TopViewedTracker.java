@@ -0,0 +1,142 @@
+package com.example.task_codepred.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.repository.AdvertisementRepository;
+import com.example.task_codepred.routing.ReadRouting;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keeps advertisements ordered by view count, fed by the view path, so the most viewed
+ * ones can be listed without sorting the table.
+ *
+ * <p>In {@code exact} mode every advertisement is tracked. In {@code approximate} mode
+ * only the {@code ads.top.capacity} best candidates are kept; an advertisement that drops
+ * out re-enters once it is viewed again, and the ranking may miss it until then.
+ */
+@Component
+public class TopViewedTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopViewedTracker.class);
+    private static final Comparator<Ranked> RANKING = Comparator.comparingInt(Ranked::views).reversed()
+            .thenComparingLong(Ranked::id);
+
+    private final NavigableSet<Ranked> ranking = new ConcurrentSkipListSet<>(RANKING);
+    private final Map<Long, Integer> viewsById = new ConcurrentHashMap<>();
+
+    private final AdvertisementRepository advertisementRepository;
+    private final ViewCounter viewCounter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean approximate;
+    private final int capacity;
+
+    public TopViewedTracker(AdvertisementRepository advertisementRepository,
+                            ViewCounter viewCounter,
+                            EntityManager entityManager,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${ads.top.mode:exact}") String mode,
+                            @Value("${ads.top.capacity:1000}") int capacity) {
+        this.advertisementRepository = advertisementRepository;
+        this.viewCounter = viewCounter;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.approximate = "approximate".equalsIgnoreCase(mode);
+        this.capacity = capacity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        // from the primary: the ranking is only seeded once, a lagging replica would leave gaps
+        try (ReadRouting.Scope scope = ReadRouting.primaryOnly()) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                if (approximate) {
+                    advertisementRepository.findMostViewed(PageRequest.of(0, capacity)).forEach(this::seed);
+                    return;
+                }
+                try (Stream<Advertisement> advertisements = advertisementRepository.streamAll()) {
+                    Iterator<Advertisement> iterator = advertisements.iterator();
+                    while (iterator.hasNext()) {
+                        Advertisement advertisement = iterator.next();
+                        seed(advertisement);
+                        entityManager.detach(advertisement);
+                    }
+                }
+            });
+        }
+        logger.info("Top viewed ranking seeded with {} advertisements ({} mode)",
+                viewsById.size(), approximate ? "approximate" : "exact");
+    }
+
+    public void record(Long id, int views) {
+        viewsById.compute(id, (key, previous) -> {
+            if (previous != null) {
+                if (previous >= views) {
+                    return previous;
+                }
+                ranking.remove(new Ranked(id, previous));
+            }
+            ranking.add(new Ranked(id, views));
+            return views;
+        });
+        if (approximate) {
+            trim();
+        }
+    }
+
+    public void evict(Long id) {
+        viewsById.computeIfPresent(id, (key, views) -> {
+            ranking.remove(new Ranked(id, views));
+            return null;
+        });
+    }
+
+    public List<Long> top(int n) {
+        List<Long> ids = new ArrayList<>(n);
+        for (Ranked ranked : ranking) {
+            if (ids.size() == n) {
+                break;
+            }
+            ids.add(ranked.id());
+        }
+        return ids;
+    }
+
+    private void seed(Advertisement advertisement) {
+        record(advertisement.getId(),
+                viewCounter.currentViews(advertisement.getId(), advertisement.getIloscWyswietlen()));
+    }
+
+    private void trim() {
+        while (viewsById.size() > capacity) {
+            Ranked lowest = ranking.pollLast();
+            if (lowest == null) {
+                return;
+            }
+            viewsById.remove(lowest.id(), lowest.views());
+        }
+    }
+
+    private record Ranked(long id, int views) {
+    }
+}
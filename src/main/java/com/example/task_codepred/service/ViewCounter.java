@@ -0,0 +1,32 @@
+package com.example.task_codepred.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public interface ViewCounter {
+
+    int recordView(Long id, int persistedViews);
+
+    /**
+     * Records one view of each advertisement; ids that no longer exist may be left out of the result.
+     */
+    default Map<Long, Integer> recordViews(Map<Long, Integer> persistedViewsById) {
+        Map<Long, Integer> viewCounts = new HashMap<>();
+        persistedViewsById.forEach((id, persistedViews) -> viewCounts.put(id, recordView(id, persistedViews)));
+        return viewCounts;
+    }
+
+    int currentViews(Long id, int persistedViews);
+
+    void discard(Long id);
+
+    long pendingViews();
+
+    /**
+     * How long views have been waiting for a successful flush at most, zero when nothing is pending.
+     */
+    default Duration unflushedFor() {
+        return Duration.ZERO;
+    }
+}
@@ -0,0 +1,16 @@
+CREATE SEQUENCE advertisements_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE advertisements (
+    id               BIGINT        NOT NULL,
+    tresc            VARCHAR(1000) NOT NULL,
+    data_dodania     TIMESTAMP(6),
+    ilosc_wyswietlen INTEGER       DEFAULT 0 NOT NULL,
+    wersja           BIGINT,
+    CONSTRAINT pk_advertisements PRIMARY KEY (id)
+);
+
+-- keyset pagination (GET /ads) orders by data_dodania, id
+CREATE INDEX idx_advertisements_data_dodania ON advertisements (data_dodania, id);
+
+-- most viewed ranking seed (GET /ads/top) orders by ilosc_wyswietlen DESC, id
+CREATE INDEX idx_advertisements_ilosc_wyswietlen ON advertisements (ilosc_wyswietlen DESC, id);
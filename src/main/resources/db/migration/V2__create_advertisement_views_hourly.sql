@@ -0,0 +1,8 @@
+-- hourly view rollups written by AdvertisementViewStats; hour_start is UTC.
+-- No foreign key: rows of deleted advertisements are never read and cost nothing on delete.
+CREATE TABLE advertisement_views_hourly (
+    advertisement_id BIGINT       NOT NULL,
+    hour_start       TIMESTAMP(6) NOT NULL,
+    views            BIGINT       NOT NULL,
+    CONSTRAINT pk_advertisement_views_hourly PRIMARY KEY (advertisement_id, hour_start)
+);
@@ -0,0 +1,14 @@
+-- transactional outbox written by AdvertisementService in the same transaction as the change.
+-- change_offset stays NULL until AdvertisementChangeRelay publishes the row, so offsets follow
+-- publication order and have no gaps; GET /ads/changes?since= resumes from them.
+CREATE TABLE advertisement_changes (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    advertisement_id BIGINT        NOT NULL,
+    change_type      VARCHAR(16)   NOT NULL,
+    tresc            VARCHAR(1000),
+    wersja           BIGINT,
+    changed_at       TIMESTAMP(6)  NOT NULL,
+    change_offset    BIGINT,
+    CONSTRAINT pk_advertisement_changes PRIMARY KEY (id),
+    CONSTRAINT uk_advertisement_changes_offset UNIQUE (change_offset)
+);
@@ -0,0 +1,44 @@
+package com.example.task_codepred;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Boots with the migrations applied and Hibernate in validate mode, so the context fails
+ * to start if db/migration drifts from the entity mappings.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class FlywayMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsCreateSchemaMatchingEntities() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES WHERE LOWER(TABLE_NAME) = 'advertisements'",
+                String.class);
+
+        assertTrue(indexes.contains("idx_advertisements_data_dodania"), indexes.toString());
+        assertTrue(indexes.contains("idx_advertisements_ilosc_wyswietlen"), indexes.toString());
+
+        Integer rollupTables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE LOWER(TABLE_NAME) = 'advertisement_views_hourly'",
+                Integer.class);
+        assertEquals(1, rollupTables);
+
+        Integer outboxTables = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE LOWER(TABLE_NAME) = 'advertisement_changes'",
+                Integer.class);
+        assertEquals(1, outboxTables);
+    }
+}
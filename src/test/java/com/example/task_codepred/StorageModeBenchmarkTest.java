@@ -0,0 +1,111 @@
+package com.example.task_codepred;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.service.AdvertisementService;
+
+/**
+ * Startup time and throughput of the in-memory database with a Hibernate-generated schema
+ * against the file-backed database with Flyway migrations used by the prod profile.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class StorageModeBenchmarkTest {
+
+    private static final int ADVERTISEMENTS = 20_000;
+    private static final int READS = 50_000;
+    private static final int UPDATES = 5_000;
+
+    @TempDir
+    private Path dataDir;
+
+    @Test
+    void compareInMemoryWithFileStorage() throws Exception {
+        Result memory = run("in-memory",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false");
+        Result file = run("file",
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("ads") + ";DB_CLOSE_ON_EXIT=FALSE;CACHE_SIZE=65536",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.flyway.enabled=true",
+                "--spring.datasource.hikari.minimum-idle=10");
+        // second start of the file database: migrations are already applied and the data is reused
+        Result restarted = run("file (restart)",
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("ads") + ";DB_CLOSE_ON_EXIT=FALSE;CACHE_SIZE=65536",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.flyway.enabled=true");
+
+        System.out.printf("%-16s %10s %14s %14s %14s%n", "storage", "startup ms", "inserts/s", "reads/s", "updates/s");
+        for (Result result : List.of(memory, file, restarted)) {
+            System.out.printf("%-16s %10d %14.0f %14.0f %14.0f%n", result.name(), result.startupMillis(),
+                    result.insertsPerSecond(), result.readsPerSecond(), result.updatesPerSecond());
+        }
+        System.out.printf("file database size: %d KB%n", Files.size(dataDir.resolve("ads.mv.db")) / 1024);
+    }
+
+    private Result run(String name, String... args) {
+        List<String> allArgs = new ArrayList<>(List.of(args));
+        allArgs.add("--spring.jpa.show-sql=false");
+        allArgs.add("--logging.level.com.example.task_codepred=WARN");
+
+        long started = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskCodepredApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(allArgs.toArray(String[]::new))) {
+            long startupMillis = (System.nanoTime() - started) / 1_000_000;
+            AdvertisementService advertisementService = context.getBean(AdvertisementService.class);
+
+            long insertStart = System.nanoTime();
+            List<Long> ids = new ArrayList<>();
+            List<Advertisement> batch = new ArrayList<>();
+            for (int i = 0; i < ADVERTISEMENTS; i++) {
+                Advertisement advertisement = new Advertisement();
+                advertisement.setTresc("Ogłoszenie do porównania magazynów danych nr " + i);
+                batch.add(advertisement);
+                if (batch.size() == 500) {
+                    advertisementService.addAll(batch).forEach(saved -> ids.add(saved.getId()));
+                    batch = new ArrayList<>();
+                }
+            }
+            double insertsPerSecond = perSecond(ADVERTISEMENTS, insertStart);
+
+            long readStart = System.nanoTime();
+            for (int i = 0; i < READS; i++) {
+                advertisementService.getById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+            }
+            double readsPerSecond = perSecond(READS, readStart);
+
+            long updateStart = System.nanoTime();
+            for (int i = 0; i < UPDATES; i++) {
+                Advertisement updated = new Advertisement();
+                updated.setTresc("Zmienione ogłoszenie do porównania nr " + i);
+                advertisementService.update(ids.get(ThreadLocalRandom.current().nextInt(ids.size())), updated);
+            }
+            double updatesPerSecond = perSecond(UPDATES, updateStart);
+
+            return new Result(name, startupMillis, insertsPerSecond, readsPerSecond, updatesPerSecond);
+        }
+    }
+
+    private double perSecond(int operations, long startNanos) {
+        return operations / ((System.nanoTime() - startNanos) / 1_000_000_000.0);
+    }
+
+    private record Result(String name, long startupMillis, double insertsPerSecond, double readsPerSecond,
+                          double updatesPerSecond) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.task_codepred.config;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class JdbcAdmissionTest {
+
+    @Test
+    void gates_ShouldBeSizedToTheirOwnPool() {
+        try (HikariDataSource primary = new HikariDataSource(); HikariDataSource replica = new HikariDataSource()) {
+            primary.setMaximumPoolSize(12);
+            replica.setMaximumPoolSize(5);
+            JdbcAdmission admission = new JdbcAdmission(0, Duration.ofSeconds(1));
+
+            assertEquals(12, admission.gatePrimary("primary", primary).getMaxPermits());
+            assertEquals(5, admission.gate("ads-replica-0", replica).getMaxPermits());
+            assertEquals(Set.of("primary", "ads-replica-0"), admission.gates().keySet());
+        }
+    }
+
+    @Test
+    void gatePrimary_ShouldUseConfiguredPermits() {
+        try (HikariDataSource primary = new HikariDataSource()) {
+            primary.setMaximumPoolSize(12);
+
+            assertEquals(4, new JdbcAdmission(4, Duration.ofSeconds(1)).gatePrimary("primary", primary).getMaxPermits());
+        }
+    }
+
+    @Test
+    void isGated_ShouldSeeGateBehindRoutingProxy() {
+        try (HikariDataSource primary = new HikariDataSource()) {
+            AdmissionControlledDataSource gate = new JdbcAdmission(0, Duration.ofSeconds(1)).gatePrimary("primary", primary);
+
+            assertTrue(JdbcAdmissionConfig.isGated(new LazyConnectionDataSourceProxy(gate)));
+            assertFalse(JdbcAdmissionConfig.isGated(new LazyConnectionDataSourceProxy(primary)));
+        }
+    }
+}
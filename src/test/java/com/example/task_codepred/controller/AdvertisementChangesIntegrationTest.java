@@ -0,0 +1,131 @@
+package com.example.task_codepred.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdvertisementChangesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testChangesAreReplayedInOrderAndResumedFromLastEventId() throws Exception {
+        long id = create("Ogłoszenie ze strumienia zmian");
+        mockMvc.perform(put("/ads/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tresc\": \"Zmienione ogłoszenie ze strumienia\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/ads/{id}", id))
+                .andExpect(status().isNoContent());
+
+        MvcResult stream = mockMvc.perform(get("/ads/changes").param("since", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        List<JsonNode> events = awaitEvents(stream, received -> changesOf(received, id).size() == 3);
+
+        List<JsonNode> changes = changesOf(events, id);
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), changes.stream().map(change -> change.get("type").asText()).toList());
+        assertEquals("Zmienione ogłoszenie ze strumienia", changes.get(1).get("tresc").asText());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).get("offset").asLong() > events.get(i - 1).get("offset").asLong(), events.toString());
+        }
+
+        long createdOffset = changes.get(0).get("offset").asLong();
+        MvcResult resumed = mockMvc.perform(get("/ads/changes").header("Last-Event-ID", createdOffset))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        List<JsonNode> resumedChanges = changesOf(awaitEvents(resumed, received -> changesOf(received, id).size() == 2), id);
+        assertEquals(List.of("UPDATED", "DELETED"), resumedChanges.stream().map(change -> change.get("type").asText()).toList());
+    }
+
+    @Test
+    void testNewChangesReachConnectedSubscribers() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/ads/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long id = create("Ogłoszenie dodane w trakcie subskrypcji");
+
+        List<JsonNode> changes = changesOf(awaitEvents(stream, received -> !changesOf(received, id).isEmpty()), id);
+        assertEquals("CREATED", changes.get(0).get("type").asText());
+        assertEquals("Ogłoszenie dodane w trakcie subskrypcji", changes.get(0).get("tresc").asText());
+    }
+
+    @Test
+    void testInvalidOffsetsAreRejected() throws Exception {
+        mockMvc.perform(get("/ads/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/ads/changes").param("since", String.valueOf(Long.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long create(String tresc) throws Exception {
+        String response = mockMvc.perform(post("/ads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tresc\": \"" + tresc + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    // changes are published by the relay thread, so the stream is polled until it has what the test waits for
+    private List<JsonNode> awaitEvents(MvcResult stream, Predicate<List<JsonNode>> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        List<JsonNode> events = events(stream);
+        while (!condition.test(events) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            events = events(stream);
+        }
+        return events;
+    }
+
+    private List<JsonNode> events(MvcResult stream) throws Exception {
+        String content = stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        int end = content.lastIndexOf("\n\n");
+        List<JsonNode> events = new ArrayList<>();
+        if (end < 0) {
+            return events;
+        }
+        for (String line : content.substring(0, end).split("\n")) {
+            if (line.startsWith("data:")) {
+                events.add(objectMapper.readTree(line.substring("data:".length())));
+            }
+        }
+        return events;
+    }
+
+    private List<JsonNode> changesOf(List<JsonNode> events, long id) {
+        return events.stream()
+                .filter(event -> event.get("id").asLong() == id)
+                .toList();
+    }
+}
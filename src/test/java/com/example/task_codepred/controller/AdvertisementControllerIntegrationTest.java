@@ -1,21 +1,34 @@
 package com.example.task_codepred.controller;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import com.example.task_codepred.dto.BatchUpdateAdvertisementDto;
 import com.example.task_codepred.dto.CreateAdvertisementDto;
 import com.example.task_codepred.dto.UpdateAdvertisementDto;
+import com.example.task_codepred.service.AdvertisementViewStats;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @SpringBootTest
@@ -27,6 +40,9 @@ class AdvertisementControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private AdvertisementViewStats viewStats;
+
     private MockMvc mockMvc;
 
     @Test
@@ -114,4 +130,329 @@ class AdvertisementControllerIntegrationTest {
         mockMvc.perform(delete("/ads/999"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void testListAdvertisementsWithKeysetPagination() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        List<Long> createdIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CreateAdvertisementDto createDto = new CreateAdvertisementDto("Ogłoszenie do listowania " + i);
+            String response = mockMvc.perform(post("/ads")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(createDto)))
+                    .andExpect(status().isCreated())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            createdIds.add(objectMapper.readTree(response).get("id").asLong());
+        }
+
+        List<Long> listedIds = new ArrayList<>();
+        String afterDate = null;
+        String afterId = null;
+        boolean hasNext = true;
+        while (hasNext) {
+            var request = get("/ads").param("size", "2");
+            if (afterDate != null) {
+                request.param("afterDate", afterDate).param("afterId", afterId);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString());
+
+            assertTrue(page.get("items").size() <= 2);
+            for (JsonNode item : page.get("items")) {
+                listedIds.add(item.get("id").asLong());
+                if (createdIds.contains(item.get("id").asLong())) {
+                    assertEquals(0, item.get("iloscWyswietlen").asInt());
+                }
+            }
+            hasNext = page.get("hasNext").asBoolean();
+            afterDate = page.get("nextAfterDate").asText();
+            afterId = page.get("nextAfterId").asText();
+        }
+
+        assertEquals(createdIds, listedIds.stream().filter(createdIds::contains).toList());
+        assertEquals(listedIds.size(), listedIds.stream().distinct().count());
+    }
+
+    @Test
+    void testListAdvertisementsRejectsIncompleteCursor() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        mockMvc.perform(get("/ads").param("afterId", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBatchCreateUpdateAndDelete() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        List<CreateAdvertisementDto> createDtos = List.of(
+                new CreateAdvertisementDto("Pierwsze ogłoszenie z paczki"),
+                new CreateAdvertisementDto("krótkie"),
+                new CreateAdvertisementDto("Drugie ogłoszenie z paczki"));
+
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/ads/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[2].status").value("CREATED"))
+                .andExpect(jsonPath("$[2].advertisement.tresc").value("Drugie ogłoszenie z paczki"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+        long firstId = created.get(0).get("id").asLong();
+        long secondId = created.get(2).get("id").asLong();
+
+        List<BatchUpdateAdvertisementDto> updateDtos = List.of(
+                new BatchUpdateAdvertisementDto(firstId, "Zaktualizowane ogłoszenie z paczki"),
+                new BatchUpdateAdvertisementDto(-1L, "Nieistniejące ogłoszenie z paczki"));
+
+        mockMvc.perform(put("/ads/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[0].advertisement.tresc").value("Zaktualizowane ogłoszenie z paczki"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+
+        mockMvc.perform(get("/ads/" + firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tresc").value("Zaktualizowane ogłoszenie z paczki"));
+
+        mockMvc.perform(delete("/ads/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(firstId, secondId, -1L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("DELETED"))
+                .andExpect(jsonPath("$[2].status").value("NOT_FOUND"));
+
+        mockMvc.perform(get("/ads/" + secondId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testExportStreamsNdjsonWithoutCountingViews() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        String createResponse = mockMvc.perform(post("/ads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateAdvertisementDto("Ogłoszenie do eksportu"))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long id = objectMapper.readTree(createResponse).get("id").asLong();
+
+        MvcResult exportResult = mockMvc.perform(get("/ads/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String export = mockMvc.perform(asyncDispatch(exportResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : export.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        JsonNode exported = lines.stream()
+                .filter(line -> line.get("id").asLong() == id)
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Ogłoszenie do eksportu", exported.get("tresc").asText());
+        assertEquals(0, exported.get("iloscWyswietlen").asInt());
+
+        mockMvc.perform(get("/ads/" + id))
+                .andExpect(jsonPath("$.iloscWyswietlen").value(1));
+    }
+
+    @Test
+    void testImportReportsAcceptedAndRejectedLines() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        String ndjson = String.join("\n",
+                "{\"tresc\": \"Pierwsze importowane ogłoszenie\"}",
+                "{\"tresc\": \"krótkie\"}",
+                "{\"tresc\": ",
+                "",
+                "{\"tresc\": \"Drugie importowane ogłoszenie\"}",
+                "{\"tresc\": \"Trzecie importowane ogłoszenie\"}");
+
+        mockMvc.perform(post("/ads/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.acceptedCount").value(3))
+                .andExpect(jsonPath("$.rejectedCount").value(2))
+                .andExpect(jsonPath("$.acceptedLines[0].from").value(1))
+                .andExpect(jsonPath("$.acceptedLines[0].to").value(1))
+                .andExpect(jsonPath("$.acceptedLines[1].from").value(5))
+                .andExpect(jsonPath("$.acceptedLines[1].to").value(6))
+                .andExpect(jsonPath("$.rejectedLines[0].line").value(2))
+                .andExpect(jsonPath("$.rejectedLines[1].line").value(3))
+                .andExpect(jsonPath("$.truncated").value(false));
+    }
+
+    @Test
+    void testImportRejectsOverlongLinesAndTrailingContent() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        String ndjson = String.join("\n",
+                "{\"tresc\": \"" + "x".repeat(20_000) + "\"}",
+                "{\"tresc\": \"Ogłoszenie z dopiskiem po obiekcie\"} garbage",
+                "{\"tresc\": \"Ogłoszenie po zbyt długiej linii\"}");
+
+        mockMvc.perform(post("/ads/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.acceptedCount").value(1))
+                .andExpect(jsonPath("$.rejectedCount").value(2))
+                .andExpect(jsonPath("$.acceptedLines[0].from").value(3))
+                .andExpect(jsonPath("$.rejectedLines[0].line").value(1))
+                .andExpect(jsonPath("$.rejectedLines[0].message").value("Linia jest dłuższa niż 16384 bajtów"))
+                .andExpect(jsonPath("$.rejectedLines[1].line").value(2));
+    }
+
+    @Test
+    void testConditionalRequestsWithETags() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        CreateAdvertisementDto createDto = new CreateAdvertisementDto();
+        createDto.setTresc("Ogłoszenie z wersjonowaniem");
+        String createResponse = mockMvc.perform(post("/ads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long id = objectMapper.readTree(createResponse).get("id").asLong();
+
+        mockMvc.perform(get("/ads/" + id).header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(content().string(""));
+
+        UpdateAdvertisementDto updateDto = new UpdateAdvertisementDto();
+        updateDto.setTresc("Ogłoszenie z wersjonowaniem po zmianie");
+        mockMvc.perform(put("/ads/" + id)
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.wersja").value(1));
+
+        mockMvc.perform(put("/ads/" + id)
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+
+        mockMvc.perform(put("/ads/" + id)
+                .header("If-Match", "W/\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/ads/" + id).header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tresc").value("Ogłoszenie z wersjonowaniem po zmianie"));
+
+        mockMvc.perform(delete("/ads/" + id).header("If-Match", "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/ads/" + id).header("If-Match", "\"1\""))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(delete("/ads/" + id).header("If-Match", "\"1\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testMultiGetReturnsFoundAdvertisementsAndMissingIds() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            CreateAdvertisementDto createDto = new CreateAdvertisementDto();
+            createDto.setTresc("Ogłoszenie na stronę główną " + i);
+            String createResponse = mockMvc.perform(post("/ads")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(createDto)))
+                    .andExpect(status().isCreated())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            ids.add(objectMapper.readTree(createResponse).get("id").asLong());
+        }
+
+        mockMvc.perform(get("/ads").param("ids", ids.get(1) + ",999999," + ids.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(ids.get(1)))
+                .andExpect(jsonPath("$.items[0].iloscWyswietlen").value(1))
+                .andExpect(jsonPath("$.items[1].id").value(ids.get(0)))
+                .andExpect(jsonPath("$.notFound[0]").value(999999));
+
+        mockMvc.perform(post("/ads/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(ids.get(0), ids.get(0)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].iloscWyswietlen").value(2))
+                .andExpect(jsonPath("$.notFound.length()").value(0));
+
+        mockMvc.perform(post("/ads/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testViewStatsFromMemoryAndFromHourlyRollups() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        CreateAdvertisementDto createDto = new CreateAdvertisementDto();
+        createDto.setTresc("Ogłoszenie ze statystykami wyświetleń");
+        String createResponse = mockMvc.perform(post("/ads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long id = objectMapper.readTree(createResponse).get("id").asLong();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/ads/" + id)).andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/ads/" + id + "/stats").param("window", "15m"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("PT15M"))
+                .andExpect(jsonPath("$.views").value(3));
+
+        viewStats.rollUpOnShutdown();
+
+        mockMvc.perform(get("/ads/" + id + "/stats").param("window", "24h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.views").value(3));
+        mockMvc.perform(get("/ads/" + id + "/stats").param("window", "tydzień"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/ads/999999/stats"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.task_codepred.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoint.health.show-details=always",
+        "management.health.db.enabled=false",
+        "management.endpoint.health.probes.enabled=true",
+        "management.endpoint.health.group.liveness.include=livenessState",
+        "management.endpoint.health.group.readiness.include=readinessState,database,connectionPool,writeBacklog",
+        "management.endpoint.health.group.readiness.show-details=always"
+})
+@AutoConfigureMockMvc
+class HealthProbesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void readinessIncludesDatabasePoolAndBacklogChecks() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components.database.status").value("UP"))
+                .andExpect(jsonPath("$.components.database.details.database").value("H2"))
+                .andExpect(jsonPath("$.components.connectionPool.status").value("UP"))
+                .andExpect(jsonPath("$.components.writeBacklog.details.pendingViews").exists());
+    }
+
+    @Test
+    void livenessDoesNotDependOnTheDatabase() throws Exception {
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components.database").doesNotExist());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.task_codepred.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.ads.service.operation=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpointExposesOperationTimersAndErrorCounters() throws Exception {
+        mockMvc.perform(post("/ads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tresc\": \"Ogłoszenie mierzone przez metryki\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/ads/999999"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("ads_service_operation_seconds_bucket")))
+                .andExpect(content().string(containsString("operation=\"add\"")))
+                .andExpect(content().string(containsString("ads_errors_total{")))
+                .andExpect(content().string(containsString("type=\"not_found\"")))
+                .andExpect(content().string(containsString("http_server_requests_seconds")))
+                .andExpect(content().string(containsString("ads_views_pending")));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.task_codepred.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "ads.rate-limit.enabled=true",
+        "ads.rate-limit.api-keys=reader,other-reader,writer",
+        "ads.rate-limit.read.capacity=2",
+        "ads.rate-limit.read.refill-per-second=0.001",
+        "ads.rate-limit.write.capacity=1",
+        "ads.rate-limit.write.refill-per-second=0.001"
+})
+@AutoConfigureMockMvc
+class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void clientOverReadBudgetGetsTooManyRequestsWithRetryAfter() throws Exception {
+        mockMvc.perform(get("/ads/999999").header("X-API-Key", "reader"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/ads/999999").header("X-API-Key", "reader"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/ads/999999").header("X-API-Key", "reader"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        mockMvc.perform(get("/ads/999999").header("X-API-Key", "other-reader"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void writeBudgetIsSeparateFromReadBudget() throws Exception {
+        mockMvc.perform(post("/ads").header("X-API-Key", "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tresc\": \"Ogłoszenie w limicie zapisów\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/ads").header("X-API-Key", "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tresc\": \"Ogłoszenie ponad limit zapisów\"}"))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/ads/999999").header("X-API-Key", "writer"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rotatingUnknownApiKeysDoesNotBypassTheLimit() throws Exception {
+        mockMvc.perform(get("/ads/999999").header("X-API-Key", "rotated-1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/ads/999999").header("X-API-Key", "rotated-2"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/ads/999999").header("X-API-Key", "rotated-3"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void actuatorEndpointsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/actuator/health"))
+                    .andExpect(status().isOk());
+        }
+    }
+}
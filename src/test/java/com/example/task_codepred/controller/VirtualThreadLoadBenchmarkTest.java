@@ -0,0 +1,129 @@
+package com.example.task_codepred.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import com.example.task_codepred.TaskCodepredApplication;
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.service.AdvertisementService;
+
+/**
+ * Compares request latency with Tomcat's platform thread pool and with virtual threads
+ * behind the JDBC admission gate. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final int ADVERTISEMENTS = 1_000;
+    private static final int CONCURRENCY = 400;
+    private static final int REQUESTS = 20_000;
+    private static final String CREATE_BODY = "{\"tresc\": \"Ogłoszenie dodane w teście obciążeniowym\"}";
+
+    @Test
+    void compareP99Latency() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("platform threads: p50=%.1f ms, p99=%.1f ms, max=%.1f ms, errors=%d%n",
+                platform.percentile(50), platform.percentile(99), platform.percentile(100), platform.errors);
+        System.out.printf("virtual threads:  p50=%.1f ms, p99=%.1f ms, max=%.1f ms, errors=%d%n",
+                virtual.percentile(50), virtual.percentile(99), virtual.percentile(100), virtual.errors);
+
+        assertEquals(0, platform.errors);
+        assertEquals(0, virtual.errors);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(TaskCodepredApplication.class).run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.example.task_codepred=WARN")) {
+            List<Long> ids = seed(context.getBean(AdvertisementService.class));
+            String baseUrl = "http://localhost:" + context.getWebServer().getPort() + "/ads";
+            return load(baseUrl, ids);
+        }
+    }
+
+    private List<Long> seed(AdvertisementService advertisementService) {
+        List<Advertisement> advertisements = new ArrayList<>();
+        for (int i = 0; i < ADVERTISEMENTS; i++) {
+            Advertisement advertisement = new Advertisement();
+            advertisement.setTresc("Ogłoszenie do testu obciążeniowego nr " + i);
+            advertisements.add(advertisement);
+        }
+        return advertisementService.addAll(advertisements).stream().map(Advertisement::getId).toList();
+    }
+
+    private Result load(String baseUrl, List<Long> ids) throws Exception {
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        long start = System.nanoTime();
+                        HttpResponse<String> response = client.send(request(baseUrl, ids, index),
+                                HttpResponse.BodyHandlers.ofString());
+                        latencies[index] = System.nanoTime() - start;
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        errors.incrementAndGet();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            inFlight.acquire(CONCURRENCY);
+        }
+        return new Result(latencies, errors.get());
+    }
+
+    private HttpRequest request(String baseUrl, List<Long> ids, int index) {
+        if (index % 10 == 0) {
+            return HttpRequest.newBuilder(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(CREATE_BODY))
+                    .build();
+        }
+        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build();
+    }
+
+    private record Result(long[] latencies, int errors) {
+
+        double percentile(int percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = Math.max(0, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+            return sorted[index] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.task_codepred.health;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisabledInNativeImage
+class CachingHealthIndicatorTest {
+
+    @Test
+    void health_ShouldReuseResultWithinTimeToLive() {
+        HealthIndicator delegate = mock(HealthIndicator.class);
+        when(delegate.health()).thenReturn(Health.up().build(), Health.down().build());
+        CachingHealthIndicator indicator = new CachingHealthIndicator(delegate, Duration.ofMinutes(1));
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(Status.UP, indicator.health().getStatus());
+        verify(delegate, times(1)).health();
+    }
+
+    @Test
+    void health_ShouldRefreshAfterTimeToLive() {
+        HealthIndicator delegate = mock(HealthIndicator.class);
+        when(delegate.health()).thenReturn(Health.up().build(), Health.down().build());
+        CachingHealthIndicator indicator = new CachingHealthIndicator(delegate, Duration.ZERO);
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+}
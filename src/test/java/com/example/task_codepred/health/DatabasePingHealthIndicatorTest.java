@@ -0,0 +1,50 @@
+package com.example.task_codepred.health;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisabledInNativeImage
+class DatabasePingHealthIndicatorTest {
+
+    @Test
+    void health_ShouldReportUp_WhenConnectionIsValid() throws Exception {
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+
+        Health health = new DatabasePingHealthIndicator(dataSource, Duration.ofSeconds(1)).health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("H2", health.getDetails().get("database"));
+    }
+
+    @Test
+    void health_ShouldReportDown_WhenConnectionDoesNotArriveInTime() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        Health health = new DatabasePingHealthIndicator(dataSource, Duration.ofMillis(100)).health();
+
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("No response within 100 ms", health.getDetails().get("error"));
+    }
+}
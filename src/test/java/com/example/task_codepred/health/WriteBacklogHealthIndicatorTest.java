@@ -0,0 +1,40 @@
+package com.example.task_codepred.health;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.task_codepred.service.ViewCounter;
+
+@DisabledInNativeImage
+class WriteBacklogHealthIndicatorTest {
+
+    private final ViewCounter viewCounter = mock(ViewCounter.class);
+    private final WriteBacklogHealthIndicator indicator =
+            new WriteBacklogHealthIndicator(viewCounter, null, Duration.ofSeconds(30));
+
+    @Test
+    void health_ShouldStayUp_WithManyPendingViewsThatAreFlushed() {
+        when(viewCounter.pendingViews()).thenReturn(5_000_000L);
+        when(viewCounter.unflushedFor()).thenReturn(Duration.ofMillis(900));
+
+        Health health = indicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(5_000_000L, health.getDetails().get("pendingViews"));
+    }
+
+    @Test
+    void health_ShouldReportDown_WhenFlushesHaveStalled() {
+        when(viewCounter.pendingViews()).thenReturn(10L);
+        when(viewCounter.unflushedFor()).thenReturn(Duration.ofSeconds(31));
+
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+}
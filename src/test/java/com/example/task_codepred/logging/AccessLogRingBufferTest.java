@@ -0,0 +1,87 @@
+package com.example.task_codepred.logging;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    void drain_ShouldReturnEntriesInOfferOrder() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        buffer.offer(entry("/ads/1"));
+        buffer.offer(entry("/ads/2"));
+
+        List<String> uris = new ArrayList<>();
+        assertEquals(2, buffer.drain(entry -> uris.add(entry.uri()), 10));
+
+        assertEquals(List.of("/ads/1", "/ads/2"), uris);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void offer_ShouldDropEntries_WhenBufferIsFull() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(2);
+
+        assertTrue(buffer.offer(entry("/ads/1")));
+        assertTrue(buffer.offer(entry("/ads/2")));
+        assertFalse(buffer.offer(entry("/ads/3")));
+        assertEquals(1, buffer.dropped());
+
+        buffer.drain(entry -> { }, 1);
+        assertTrue(buffer.offer(entry("/ads/4")));
+    }
+
+    @Test
+    void concurrentProducers_ShouldNeitherLoseNorDuplicateEntries() throws Exception {
+        int producers = 8;
+        int perProducer = 10_000;
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(1024);
+        Set<String> received = new HashSet<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(entry(producer + "/" + i))) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            while (received.size() < producers * perProducer) {
+                buffer.drain(entry -> assertTrue(received.add(entry.uri())), 256);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(producers * perProducer, received.size());
+        assertEquals(0, buffer.size());
+    }
+
+    private AccessLogEntry entry(String uri) {
+        return new AccessLogEntry(Instant.now(), "GET", uri, null, 200, 10, null);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.task_codepred.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.task_codepred.dto.AdvertisementChangeDto;
+import com.example.task_codepred.entity.AdvertisementChange;
+import com.example.task_codepred.exception.ChangeStreamFullException;
+import com.example.task_codepred.exception.ChangesExpiredException;
+import com.example.task_codepred.exception.InvalidPageRequestException;
+import com.example.task_codepred.repository.AdvertisementChangeRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisabledInNativeImage
+class AdvertisementChangeStreamTest {
+
+    private final AdvertisementChangeRepository changeRepository = mock(AdvertisementChangeRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdvertisementChangeStream changeStream =
+            new AdvertisementChangeStream(changeRepository, meterRegistry, 2, 1, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        changeStream.shutdown();
+    }
+
+    @Test
+    void publish_ShouldDisconnectSubscriberWhoseBufferOverflows() throws Exception {
+        CountDownLatch replaying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(changeRepository.findLastOffset()).thenReturn(Optional.of(0L));
+        // the sender is held in the replay, so live changes pile up as they would for a slow client
+        when(changeRepository.findByChangeOffsetGreaterThanOrderByChangeOffset(anyLong(), any())).thenAnswer(invocation -> {
+            replaying.countDown();
+            release.await();
+            return List.of();
+        });
+
+        changeStream.subscribe(null);
+        assertTrue(replaying.await(5, TimeUnit.SECONDS));
+
+        changeStream.publish(List.of(change(1), change(2)));
+        assertEquals(1, changeStream.subscriberCount());
+
+        changeStream.publish(List.of(change(3)));
+        assertEquals(0, changeStream.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("ads.changes.disconnected").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void subscribe_ShouldRejectSubscribersOverLimit() {
+        when(changeRepository.findLastOffset()).thenReturn(Optional.of(0L));
+
+        changeStream.subscribe(null);
+
+        assertThrows(ChangeStreamFullException.class, () -> changeStream.subscribe(null));
+    }
+
+    @Test
+    void subscribe_ShouldRejectOffsetsThatArePurgedOrAheadOfTheStream() {
+        when(changeRepository.findLastOffset()).thenReturn(Optional.of(20L));
+        when(changeRepository.findFirstOffset()).thenReturn(Optional.of(10L));
+
+        assertThrows(ChangesExpiredException.class, () -> changeStream.subscribe(3L));
+        assertThrows(InvalidPageRequestException.class, () -> changeStream.subscribe(21L));
+        assertEquals(0, changeStream.subscriberCount());
+
+        changeStream.subscribe(9L);
+        assertEquals(1, changeStream.subscriberCount());
+    }
+
+    private AdvertisementChangeDto change(long offset) {
+        return new AdvertisementChangeDto(offset, AdvertisementChange.Type.UPDATED, 1L, "Zmienione ogłoszenie", offset,
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.task_codepred.ratelimit;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.task_codepred.config.ClientKeys;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ClientKeys clientKeys = new ClientKeys("X-API-Key", Set.of("known-key"));
+
+    @Test
+    void shouldShedLoad_WhenConcurrencyCapIsReached() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter(), 0, clientKeys, objectMapper, meterRegistry);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/ads/1"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+        assertEquals(1.0, meterRegistry.counter("ads.requests.rejected", "reason", "overloaded").count());
+    }
+
+    @Test
+    void shouldReleaseConcurrencySlot_AfterRequestCompletes() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter(), 1, clientKeys, objectMapper,
+                new SimpleMeterRegistry());
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/ads/1"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(0, filter.inFlightRequests());
+    }
+
+    @Test
+    void shouldHoldConcurrencySlot_UntilAsyncResponseCompletes() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter(), 1, clientKeys, objectMapper,
+                new SimpleMeterRegistry());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/ads/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                req.startAsync();
+            }
+        }));
+
+        assertEquals(1, filter.inFlightRequests());
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/ads/1"), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+
+        request.getAsyncContext().complete();
+        assertEquals(0, filter.inFlightRequests());
+    }
+
+    @Test
+    void shouldNotCapChangeStream_WhichHasItsOwnSubscriberLimit() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter(), 0, clientKeys, objectMapper,
+                new SimpleMeterRegistry());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/ads/changes"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void shouldLimitByAddress_WhenApiKeyIsNotConfigured() throws Exception {
+        RateLimiter rateLimiter = new RateLimiter(2, 0.001, 2, 0.001, Duration.ofMinutes(1), 100, System::nanoTime);
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter, 10, clientKeys, objectMapper, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request("rotated-key-" + i), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        MockHttpServletResponse rotated = new MockHttpServletResponse();
+        filter.doFilter(request("rotated-key-2"), rotated, new MockFilterChain());
+        assertEquals(429, rotated.getStatus());
+
+        MockHttpServletResponse known = new MockHttpServletResponse();
+        filter.doFilter(request("known-key"), known, new MockFilterChain());
+        assertEquals(200, known.getStatus());
+    }
+
+    private MockHttpServletRequest request(String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/ads/1");
+        request.addHeader("X-API-Key", apiKey);
+        return request;
+    }
+
+    private RateLimiter rateLimiter() {
+        return new RateLimiter(100, 100, 100, 100, Duration.ofMinutes(1), 100, System::nanoTime);
+    }
+}
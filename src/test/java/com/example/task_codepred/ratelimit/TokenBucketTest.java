@@ -0,0 +1,72 @@
+package com.example.task_codepred.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstUpToCapacity_ThenReportWait() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(SECOND / 4) > 0);
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void isIdle_ShouldBeTrue_OnlyAfterBucketHasBeenFullForIdleTimeout() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isIdle(SECOND, SECOND));
+        assertTrue(bucket.isIdle(3 * SECOND + 1, SECOND));
+    }
+
+    @Test
+    void rateLimiter_ShouldKeepSeparateBudgetsPerClientAndKind() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter rateLimiter = new RateLimiter(1, 1, 1, 1, Duration.ofSeconds(10), 100, clock::get);
+
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", false));
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", true));
+        assertEquals(0, rateLimiter.tryAcquire("ip:2", false));
+        assertTrue(rateLimiter.tryAcquire("ip:1", false) > 0);
+        assertEquals(3, rateLimiter.trackedClients());
+
+        clock.set(TimeUnit.SECONDS.toNanos(20));
+        rateLimiter.evictIdle();
+
+        assertEquals(0, rateLimiter.trackedClients());
+    }
+
+    @Test
+    void rateLimiter_ShouldShareOneBucketAmongNewClients_OnceMaxClientsIsReached() {
+        RateLimiter rateLimiter = new RateLimiter(1, 1, 1, 1, Duration.ofSeconds(10), 2, () -> 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", false));
+        assertEquals(0, rateLimiter.tryAcquire("ip:2", false));
+        assertEquals(0, rateLimiter.tryAcquire("ip:3", false));
+        assertTrue(rateLimiter.tryAcquire("ip:4", false) > 0);
+        assertEquals(3, rateLimiter.trackedClients());
+    }
+}
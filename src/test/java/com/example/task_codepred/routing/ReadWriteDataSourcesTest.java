@@ -0,0 +1,56 @@
+package com.example.task_codepred.routing;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.sql.DataSource;
+
+@DisabledInNativeImage
+class ReadWriteDataSourcesTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReadWriteDataSources dataSources =
+            new ReadWriteDataSources(primary, List.of(replica), Duration.ofSeconds(1));
+
+    @Test
+    void reads_ShouldUseReplica_UnlessPrimaryIsForced() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(replicaConnection, dataSources.reads().getConnection());
+        try (ReadRouting.Scope scope = ReadRouting.primaryOnly()) {
+            assertSame(primaryConnection, dataSources.reads().getConnection());
+        }
+        assertSame(replicaConnection, dataSources.reads().getConnection());
+    }
+
+    @Test
+    void reads_ShouldFallBackToPrimary_UntilReplicaPassesHealthCheck() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(primaryConnection, dataSources.reads().getConnection());
+        assertEquals(Map.of("replica-0", false), dataSources.replicaStatus());
+
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.isValid(anyInt())).thenReturn(true);
+        dataSources.checkReplicas();
+
+        assertEquals(Map.of("replica-0", true), dataSources.replicaStatus());
+        assertSame(replicaConnection, dataSources.reads().getConnection());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.task_codepred.routing;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Primary and replica are two separate H2 databases with no replication between them,
+ * so a row's visibility shows which one served a read.
+ */
+// the read-your-writes window is per client, and only configured API keys identify one
+@SpringBootTest(properties = "ads.rate-limit.api-keys=reader,writer")
+@AutoConfigureMockMvc
+class ReadWriteRoutingIntegrationTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-" + UUID.randomUUID()
+            + ";DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'";
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("ads.datasource.replica-urls", () -> REPLICA_URL);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Test
+    void readOnlyTransactionsGoToReplica_WhileWritersReadTheirOwnWritesFromPrimary() throws Exception {
+        replica.update("INSERT INTO advertisements (id, tresc, data_dodania, ilosc_wyswietlen, wersja) "
+                + "VALUES (900001, 'Ogłoszenie widoczne tylko na replice', CURRENT_TIMESTAMP, 0, 0)");
+
+        mockMvc.perform(get("/ads").header("X-API-Key", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id", hasItem(900001)));
+
+        String createResponse = mockMvc.perform(post("/ads").header("X-API-Key", "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tresc\": \"Ogłoszenie zapisane na primary\"}"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        int id = objectMapper.readTree(createResponse).get("id").asInt();
+
+        mockMvc.perform(get("/ads").header("X-API-Key", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id", hasItem(id)))
+                .andExpect(jsonPath("$.items[*].id", not(hasItem(900001))));
+
+        mockMvc.perform(get("/ads").header("X-API-Key", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id", not(hasItem(id))));
+    }
+}
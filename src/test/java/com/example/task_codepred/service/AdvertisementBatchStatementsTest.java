@@ -0,0 +1,93 @@
+package com.example.task_codepred.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.outbox.AdvertisementChangeRelay;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AdvertisementBatchStatementsTest {
+
+    private static final int ITEMS = 100;
+
+    @Autowired
+    private AdvertisementService advertisementService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AdvertisementChangeRelay changeRelay;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // the relay publishes outbox rows in the background and its statements would land in the counts
+        changeRelay.stop();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeRelay.start();
+    }
+
+    @Test
+    void addAll_ShouldUseFarFewerStatementsThanSingleAdds() {
+        statistics.clear();
+        for (int i = 0; i < ITEMS; i++) {
+            advertisementService.add(newAdvertisement("Pojedyncze ogłoszenie " + i));
+        }
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<Advertisement> batch = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            batch.add(newAdvertisement("Ogłoszenie z paczki " + i));
+        }
+        List<Advertisement> saved = advertisementService.addAll(batch);
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(ITEMS, saved.size());
+        assertEquals(ITEMS, statistics.getEntityInsertCount());
+        assertTrue(singleStatements >= ITEMS, "single adds used " + singleStatements + " statements");
+        assertTrue(batchStatements * 10 < singleStatements,
+                "batch used " + batchStatements + " statements, single adds used " + singleStatements);
+    }
+
+    @Test
+    void deleteAll_ShouldDeleteOnlyExistingIdsWithOneQueryAndOneDelete() {
+        List<Advertisement> saved = advertisementService.addAll(List.of(
+                newAdvertisement("Ogłoszenie do usunięcia 1"),
+                newAdvertisement("Ogłoszenie do usunięcia 2")));
+        List<Long> ids = new ArrayList<>(saved.stream().map(Advertisement::getId).toList());
+        ids.add(-1L);
+
+        statistics.clear();
+        List<Long> deleted = advertisementService.deleteAll(ids);
+
+        assertEquals(2, deleted.size());
+        // plus one JDBC batch of outbox rows, which does not go through Hibernate
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Advertisement newAdvertisement(String tresc) {
+        Advertisement advertisement = new Advertisement();
+        advertisement.setTresc(tresc);
+        return advertisement;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.task_codepred.service;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.task_codepred.repository.AdvertisementRepository;
+
+@DisabledInNativeImage
+class AdvertisementIdFilterTest {
+
+    private final AdvertisementRepository advertisementRepository = mock(AdvertisementRepository.class);
+    private final AdvertisementIdFilter idFilter = new AdvertisementIdFilter(
+            advertisementRepository, mock(PlatformTransactionManager.class), 1000, 0.01);
+
+    @Test
+    void mightContain_ShouldAllowEveryId_BeforeFirstBuild() {
+        assertTrue(idFilter.mightContain(42L));
+    }
+
+    @Test
+    void rebuild_ShouldContainEveryExistingId_AndRuleOutMostOthers() {
+        when(advertisementRepository.count()).thenReturn(500L);
+        when(advertisementRepository.streamAllIds()).thenReturn(LongStream.rangeClosed(1, 500).boxed());
+
+        idFilter.rebuild();
+
+        for (long id = 1; id <= 500; id++) {
+            assertTrue(idFilter.mightContain(id));
+        }
+        long falsePositives = LongStream.rangeClosed(1_000_001, 1_010_000)
+                .filter(idFilter::mightContain)
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void add_ShouldMakeNewIdVisible_AfterBuild() {
+        when(advertisementRepository.count()).thenReturn(0L);
+        when(advertisementRepository.streamAllIds()).thenReturn(Stream.empty());
+        idFilter.rebuild();
+        assertFalse(idFilter.mightContain(7L));
+
+        idFilter.add(7L);
+
+        assertTrue(idFilter.mightContain(7L));
+    }
+
+    @Test
+    void add_ShouldNotLoseIds_WhenRacingWithRebuildSwap() throws Exception {
+        // ids are committed before they are added, as with the after-commit add in AdvertisementService,
+        // so each rebuild streams some of them and the rest must reach the rebuilt filter through add
+        Set<Long> committed = ConcurrentHashMap.newKeySet();
+        // sized well above the ids used, so a lost id is not hidden by a false positive
+        AdvertisementIdFilter idFilter = new AdvertisementIdFilter(
+                advertisementRepository, mock(PlatformTransactionManager.class), 200_000, 0.0001);
+        when(advertisementRepository.count()).thenReturn(0L);
+        when(advertisementRepository.streamAllIds()).thenAnswer(invocation -> new ArrayList<>(committed).stream());
+        idFilter.rebuild();
+
+        AtomicBoolean adding = new AtomicBoolean(true);
+        Thread rebuilder = new Thread(() -> {
+            while (adding.get()) {
+                idFilter.rebuild();
+            }
+        });
+        rebuilder.start();
+        for (long id = 1; id <= 20_000; id++) {
+            committed.add(id);
+            idFilter.add(id);
+        }
+        adding.set(false);
+        rebuilder.join();
+
+        for (long id = 1; id <= 20_000; id++) {
+            assertTrue(idFilter.mightContain(id), "lost id " + id);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.task_codepred.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.task_codepred.entity.Advertisement;
+
+/**
+ * Compares the inverted index against a LIKE scan over the advertisements table.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AdvertisementSearchBenchmarkTest {
+
+    private static final int ADVERTISEMENTS = 20_000;
+    private static final int QUERIES = 200;
+    private static final String[] WORDS = {
+        "sprzedam", "kupię", "zamienię", "oddam", "samochód", "rower", "mieszkanie", "dom", "działka",
+        "telefon", "laptop", "kanapa", "stół", "krzesło", "nowy", "używany", "tanio", "pilnie", "okazja",
+        "warszawa", "kraków", "gdańsk", "poznań", "wrocław", "stan", "bardzo", "dobry", "idealny", "cena"
+    };
+
+    @Autowired
+    private AdvertisementService advertisementService;
+
+    @Autowired
+    private AdvertisementSearchIndex searchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareIndexWithSqlScan() {
+        Random random = new Random(42);
+        List<Advertisement> batch = new ArrayList<>();
+        for (int i = 0; i < ADVERTISEMENTS; i++) {
+            Advertisement advertisement = new Advertisement();
+            advertisement.setTresc(randomText(random, 8));
+            batch.add(advertisement);
+            if (batch.size() == 1000) {
+                advertisementService.addAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(randomText(random, 2));
+        }
+
+        long indexMatches = 0;
+        long indexStarted = System.nanoTime();
+        for (String query : queries) {
+            indexMatches += searchIndex.search(query, 20).total();
+        }
+        long indexNanos = System.nanoTime() - indexStarted;
+
+        long sqlMatches = 0;
+        long sqlStarted = System.nanoTime();
+        for (String query : queries) {
+            String[] terms = query.split(" ");
+            sqlMatches += jdbcTemplate.queryForList(
+                    "SELECT id FROM advertisements WHERE LOWER(tresc) LIKE ? AND LOWER(tresc) LIKE ?",
+                    Long.class, "%" + terms[0] + "%", "%" + terms[1] + "%").size();
+        }
+        long sqlNanos = System.nanoTime() - sqlStarted;
+
+        System.out.printf("Search over %d advertisements, %d two-word queries%n", ADVERTISEMENTS, QUERIES);
+        System.out.printf("  inverted index: %8.3f ms/query (%d matches)%n", indexNanos / 1e6 / QUERIES, indexMatches);
+        System.out.printf("  SQL LIKE scan:  %8.3f ms/query (%d matches)%n", sqlNanos / 1e6 / QUERIES, sqlMatches);
+        assertEquals(sqlMatches, indexMatches);
+    }
+
+    private String randomText(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
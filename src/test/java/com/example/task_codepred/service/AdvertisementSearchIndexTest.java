@@ -0,0 +1,139 @@
+package com.example.task_codepred.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.repository.AdvertisementRepository;
+
+import jakarta.persistence.EntityManager;
+
+@DisabledInNativeImage
+@ExtendWith(MockitoExtension.class)
+class AdvertisementSearchIndexTest {
+
+    @Mock
+    private AdvertisementRepository advertisementRepository;
+
+    @Mock
+    private ViewCounter viewCounter;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AdvertisementSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new AdvertisementSearchIndex(advertisementRepository, viewCounter, entityManager,
+                new TransactionTemplate(transactionManager));
+        searchIndex.index(1L, "Sprzedam samochód osobowy, stan dobry", 5, 0L);
+        searchIndex.index(2L, "Sprzedam rower górski", 10, 0L);
+        searchIndex.index(3L, "Kupię samochód dostawczy", 1, 0L);
+    }
+
+    @Test
+    void search_ShouldRequireAllTerms() {
+        assertEquals(List.of(1L), searchIndex.search("sprzedam samochód", 10).ids());
+    }
+
+    @Test
+    void search_ShouldRankByViewCount() {
+        assertEquals(List.of(2L, 1L), searchIndex.search("SPRZEDAM", 10).ids());
+
+        searchIndex.updateViews(1L, 50);
+
+        assertEquals(List.of(1L, 2L), searchIndex.search("sprzedam", 10).ids());
+    }
+
+    @Test
+    void search_ShouldMatchPrefix() {
+        assertEquals(List.of(1L, 3L), searchIndex.search("samoch*", 10).ids());
+        assertEquals(List.of(3L), searchIndex.search("samoch* dost*", 10).ids());
+    }
+
+    @Test
+    void index_ShouldReplaceTokensOfUpdatedAdvertisement() {
+        searchIndex.index(2L, "Oddam rower miejski", 10, 1L);
+
+        assertEquals(List.of(1L), searchIndex.search("sprzedam", 10).ids());
+        assertEquals(List.of(2L), searchIndex.search("oddam rower", 10).ids());
+    }
+
+    @Test
+    void remove_ShouldDropAdvertisementFromResults() {
+        searchIndex.remove(1L);
+        searchIndex.updateViews(1L, 100);
+
+        assertEquals(List.of(3L), searchIndex.search("samochód", 10).ids());
+        assertEquals(2, searchIndex.size());
+    }
+
+    @Test
+    void search_ShouldReturnTopHitsAndCountAllMatches() {
+        AdvertisementSearchIndex.Hits hits = searchIndex.search("sprzedam", 1);
+
+        assertEquals(List.of(2L), hits.ids());
+        assertEquals(2, hits.total());
+        // advertisement 1 is in three posting lists matching the prefix and counts once
+        assertEquals(List.of(2L, 1L, 3L), searchIndex.search("s*", 10).ids());
+        assertEquals(3, searchIndex.search("s*", 10).total());
+    }
+
+    @Test
+    void index_ShouldIgnoreOlderVersion() {
+        searchIndex.index(2L, "Oddam rower miejski", 10, 2L);
+        searchIndex.index(2L, "Sprzedam rower górski", 10, 1L);
+
+        assertEquals(List.of(2L), searchIndex.search("oddam", 10).ids());
+        assertEquals(List.of(1L), searchIndex.search("sprzedam", 10).ids());
+    }
+
+    @Test
+    void build_ShouldNotIndexAdvertisementRemovedWhileItRuns() {
+        Advertisement stale = new Advertisement(4L, "Sprzedam motocykl", LocalDateTime.now(), 0, 0L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(advertisementRepository.streamAll()).thenAnswer(invocation -> {
+            // committed delete lands after the snapshot was read, before the build indexes it
+            searchIndex.remove(4L);
+            return Stream.of(stale);
+        });
+
+        searchIndex.build();
+
+        assertTrue(searchIndex.search("motocykl", 10).ids().isEmpty());
+    }
+
+    @Test
+    void remove_ShouldDropEmptiedPostingLists() {
+        searchIndex.remove(2L);
+
+        assertTrue(searchIndex.search("row*", 10).ids().isEmpty());
+        searchIndex.index(5L, "Rower trekkingowy", 0, 0L);
+        assertEquals(List.of(5L), searchIndex.search("rower", 10).ids());
+    }
+
+    @Test
+    void search_ShouldReturnNothing_ForUnknownOrEmptyTerms() {
+        assertTrue(searchIndex.search("motocykl", 10).ids().isEmpty());
+        assertTrue(searchIndex.search("*", 10).ids().isEmpty());
+    }
+}
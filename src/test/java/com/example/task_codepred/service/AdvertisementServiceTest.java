@@ -1,35 +1,72 @@
 package com.example.task_codepred.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyInt;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.example.task_codepred.dto.AdvertisementDto;
 import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.entity.AdvertisementChange;
 import com.example.task_codepred.exception.AdvertisementNotFoundException;
+import com.example.task_codepred.exception.AdvertisementVersionMismatchException;
+import com.example.task_codepred.outbox.AdvertisementChangeOutbox;
 import com.example.task_codepred.repository.AdvertisementRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisabledInNativeImage
 @ExtendWith(MockitoExtension.class)
 class AdvertisementServiceTest {
 
     @Mock
     private AdvertisementRepository advertisementRepository;
 
+    @Mock
+    private ViewCounter viewCounter;
+
+    @Mock
+    private AdvertisementSearchIndex searchIndex;
+
+    @Mock
+    private TopViewedTracker topViewedTracker;
+
+    @Mock
+    private AdvertisementViewStats viewStats;
+
+    @Mock
+    private AdvertisementChangeOutbox changeOutbox;
+
+    @Spy
+    private AdvertisementCache advertisementCache =
+            new AdvertisementCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    // never built, so every id counts as possibly present
+    @Spy
+    private AdvertisementIdFilter idFilter = new AdvertisementIdFilter(null, null, 1000, 0.01);
+
     @InjectMocks
     private AdvertisementService advertisementService;
 
@@ -60,6 +97,7 @@ class AdvertisementServiceTest {
         assertEquals(1L, result.getId());
         assertEquals("Test advertisement content", result.getTresc());
         verify(advertisementRepository).save(any(Advertisement.class));
+        verify(changeOutbox).append(AdvertisementChange.Type.CREATED, List.of(savedAdvertisement));
     }
 
     @Test
@@ -94,6 +132,35 @@ class AdvertisementServiceTest {
         verify(advertisementRepository, never()).save(any(Advertisement.class));
     }
 
+    @Test
+    void update_ShouldRejectStaleVersion() {
+        Long id = 1L;
+        savedAdvertisement.setWersja(3L);
+        Advertisement updatedAdvertisement = new Advertisement();
+        updatedAdvertisement.setTresc("Updated content");
+
+        when(advertisementRepository.findById(id)).thenReturn(Optional.of(savedAdvertisement));
+
+        assertThrows(AdvertisementVersionMismatchException.class, () -> {
+            advertisementService.update(id, updatedAdvertisement, Set.of(2L));
+        });
+        assertEquals("Test advertisement content", savedAdvertisement.getTresc());
+        verify(advertisementRepository, never()).save(any(Advertisement.class));
+    }
+
+    @Test
+    void delete_ShouldRejectStaleVersion() {
+        Long id = 1L;
+        when(advertisementRepository.deleteByIdAndWersjaIn(id, Set.of(2L))).thenReturn(0);
+        when(advertisementRepository.findVersionById(id)).thenReturn(Optional.of(3L));
+
+        assertThrows(AdvertisementVersionMismatchException.class, () -> {
+            advertisementService.delete(id, Set.of(2L));
+        });
+        verify(viewCounter, never()).discard(id);
+        verify(changeOutbox, never()).appendDeleted(any());
+    }
+
     @Test
     void delete_ShouldDeleteExistingAdvertisement() {
         Long id = 1L;
@@ -104,6 +171,8 @@ class AdvertisementServiceTest {
 
         verify(advertisementRepository).existsById(id);
         verify(advertisementRepository).deleteById(id);
+        verify(viewCounter).discard(id);
+        verify(changeOutbox).appendDeleted(List.of(id));
     }
 
     @Test
@@ -121,42 +190,107 @@ class AdvertisementServiceTest {
     @Test
     void getById_ShouldReturnAdvertisementAndIncrementViewCount() {
         Long id = 1L;
-        when(advertisementRepository.findById(id)).thenReturn(Optional.of(savedAdvertisement));
-        when(advertisementRepository.save(any(Advertisement.class))).thenReturn(savedAdvertisement);
+        when(advertisementRepository.findDtoById(id)).thenReturn(Optional.of(dto(id, "Test advertisement content", 0)));
+        when(viewCounter.recordView(id, 0)).thenReturn(1);
 
-        Advertisement result = advertisementService.getById(id);
+        AdvertisementDto result = advertisementService.getById(id);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(advertisementRepository).findById(id);
-        verify(advertisementRepository).save(any(Advertisement.class));
+        assertEquals(1, result.getIloscWyswietlen());
+        verify(advertisementRepository).findDtoById(id);
+        verify(advertisementRepository, never()).findById(any());
+        verify(advertisementRepository, never()).save(any(Advertisement.class));
     }
 
     @Test
     void getById_ShouldIncrementIloscWyswietlen() {
         Long id = 1L;
-        Advertisement advertisement = new Advertisement();
-        advertisement.setId(1L);
-        advertisement.setTresc("Test content");
-        advertisement.setIloscWyswietlen(5);
+        when(advertisementRepository.findDtoById(id)).thenReturn(Optional.of(dto(id, "Test content", 5)));
+        when(viewCounter.recordView(id, 5)).thenReturn(6);
+
+        AdvertisementDto result = advertisementService.getById(id);
+
+        assertEquals(6, result.getIloscWyswietlen());
+        verify(viewCounter).recordView(id, 5);
+    }
+
+    @Test
+    void getById_ShouldServeContentFromCacheAndStillCountViews() {
+        Long id = 1L;
+        when(advertisementRepository.findDtoById(id)).thenReturn(Optional.of(dto(id, "Test advertisement content", 0)));
+        when(viewCounter.recordView(id, 0)).thenReturn(1, 2);
+
+        advertisementService.getById(id);
+        AdvertisementDto result = advertisementService.getById(id);
+
+        assertEquals(2, result.getIloscWyswietlen());
+        verify(advertisementRepository, times(1)).findDtoById(id);
+        verify(viewCounter, times(2)).recordView(id, 0);
+    }
+
+    @Test
+    void update_ShouldEvictCachedAdvertisement() {
+        Long id = 1L;
+        Advertisement updatedAdvertisement = new Advertisement();
+        updatedAdvertisement.setTresc("Updated content");
 
-        when(advertisementRepository.findById(id)).thenReturn(Optional.of(advertisement));
-        when(advertisementRepository.save(any(Advertisement.class))).thenReturn(advertisement);
+        when(advertisementRepository.findDtoById(id)).thenReturn(
+                Optional.of(dto(id, "Test advertisement content", 0)),
+                Optional.of(dto(id, "Updated content", 0)));
+        when(advertisementRepository.findById(id)).thenReturn(Optional.of(savedAdvertisement));
+        when(advertisementRepository.save(any(Advertisement.class))).thenReturn(savedAdvertisement);
 
         advertisementService.getById(id);
+        advertisementService.update(id, updatedAdvertisement);
+        AdvertisementDto result = advertisementService.getById(id);
 
-        verify(advertisementRepository).save(argThat(adv -> adv.getIloscWyswietlen() == 6));
+        assertEquals("Updated content", result.getTresc());
+        verify(advertisementCache).evict(id);
+        verify(advertisementRepository, times(2)).findDtoById(id);
     }
 
     @Test
     void getById_ShouldThrowException_WhenAdvertisementNotFound() {
         Long id = 999L;
-        when(advertisementRepository.findById(id)).thenReturn(Optional.empty());
+        when(advertisementRepository.findDtoById(id)).thenReturn(Optional.empty());
 
         assertThrows(AdvertisementNotFoundException.class, () -> {
             advertisementService.getById(id);
         });
-        verify(advertisementRepository).findById(id);
-        verify(advertisementRepository, never()).save(any(Advertisement.class));
+        verify(advertisementRepository).findDtoById(id);
+        verify(viewCounter, never()).recordView(any(), anyInt());
+    }
+
+    @Test
+    void getByIds_ShouldLoadMissingWithOneQueryAndRecordViewsInOneBatch() {
+        advertisementCache.get(1L, id -> Optional.of(AdvertisementSnapshot.from(dto(1L, "Cached content", 3))));
+        when(advertisementRepository.findDtosByIdIn(any())).thenReturn(List.of(dto(2L, "Loaded content", 7)));
+        when(viewCounter.recordViews(Map.of(1L, 3, 2L, 7))).thenReturn(Map.of(1L, 4, 2L, 8));
+
+        List<AdvertisementDto> result = advertisementService.getByIds(List.of(2L, 999L, 1L));
+
+        assertEquals(List.of(2L, 1L), result.stream().map(AdvertisementDto::getId).toList());
+        assertEquals(8, result.get(0).getIloscWyswietlen());
+        assertEquals(4, result.get(1).getIloscWyswietlen());
+        verify(advertisementRepository).findDtosByIdIn(any());
+        verify(viewCounter, never()).recordView(any(), anyInt());
+        verify(topViewedTracker).record(2L, 8);
+    }
+
+    @Test
+    void getById_ShouldNotQueryDatabase_WhenIdFilterRulesIdOut() {
+        doReturn(false).when(idFilter).mightContain(999L);
+
+        AdvertisementNotFoundException exception =
+                assertThrows(AdvertisementNotFoundException.class, () -> advertisementService.getById(999L));
+
+        assertEquals(0, exception.getStackTrace().length);
+        verify(advertisementRepository, never()).findDtoById(any());
+        verify(viewCounter, never()).recordView(any(), anyInt());
+    }
+
+    private AdvertisementDto dto(Long id, String tresc, int iloscWyswietlen) {
+        return new AdvertisementDto(id, tresc, LocalDateTime.now(), iloscWyswietlen, 0L);
     }
 }
@@ -0,0 +1,79 @@
+package com.example.task_codepred.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task_codepred.repository.AdvertisementViewsHourlyRepository;
+
+@DisabledInNativeImage
+class AdvertisementViewStatsTest {
+
+    private static final long MINUTE = 60_000;
+    // 2026-01-01T10:00:00Z
+    private static final long TEN_O_CLOCK = 1_767_261_600_000L;
+
+    private final AtomicLong now = new AtomicLong(TEN_O_CLOCK);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AdvertisementViewsHourlyRepository hourlyRepository = mock(AdvertisementViewsHourlyRepository.class);
+    private final AdvertisementViewStats viewStats = new AdvertisementViewStats(jdbcTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), hourlyRepository, now::get);
+
+    @Test
+    void viewsInWindow_ShouldCountOnlyMinutesInsideTheWindow() {
+        viewStats.record(1L);
+        now.addAndGet(10 * MINUTE);
+        viewStats.record(1L);
+        viewStats.record(1L);
+
+        assertEquals(2, viewStats.viewsInWindow(1L, Duration.ofMinutes(5)).getViews());
+        assertEquals(3, viewStats.viewsInWindow(1L, Duration.ofHours(1)).getViews());
+        assertEquals(0, viewStats.viewsInWindow(2L, Duration.ofHours(1)).getViews());
+    }
+
+    @Test
+    void record_ShouldNotCountViewsFromAPreviousLapOfTheRing() {
+        viewStats.record(1L);
+        now.addAndGet(AdvertisementViewStats.MINUTES_IN_MEMORY * MINUTE);
+        viewStats.record(1L);
+
+        assertEquals(1, viewStats.viewsInWindow(1L, Duration.ofMinutes(1)).getViews());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rollUp_ShouldWriteCompletedMinutesPerHour_AndLongWindowsShouldNotCountThemTwice() {
+        now.addAndGet(-2 * MINUTE);
+        viewStats.record(1L);
+        now.addAndGet(MINUTE);
+        viewStats.record(1L);
+        viewStats.record(1L);
+        now.addAndGet(MINUTE);
+        viewStats.record(1L);
+
+        viewStats.rollUp();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(AdvertisementViewStats.ROLLUP_SQL), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertArrayEquals(new Object[] { 1L, LocalDateTime.of(2026, 1, 1, 9, 0), 3L }, batch.getValue().get(0));
+
+        when(hourlyRepository.sumViewsSince(eq(1L), any())).thenReturn(3L);
+        assertEquals(4, viewStats.viewsInWindow(1L, Duration.ofHours(3)).getViews());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.task_codepred.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DisabledInNativeImage
+@ExtendWith(MockitoExtension.class)
+class BufferedViewCounterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private AdvertisementCache advertisementCache;
+
+    private BufferedViewCounter viewCounter;
+
+    @BeforeEach
+    void setUp() {
+        viewCounter = new BufferedViewCounter(jdbcTemplate, transactionTemplate, advertisementCache);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void recordView_ShouldReturnPersistedCountPlusPendingViews() {
+        assertEquals(6, viewCounter.recordView(1L, 5));
+        assertEquals(7, viewCounter.recordView(1L, 5));
+        assertEquals(7, viewCounter.currentViews(1L, 5));
+        assertEquals(2, viewCounter.pendingViews());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldBatchPendingDeltasAndKeepCurrentCount() {
+        viewCounter.recordView(1L, 0);
+        viewCounter.recordView(1L, 0);
+        viewCounter.recordView(2L, 10);
+        when(jdbcTemplate.batchUpdate(eq(BufferedViewCounter.FLUSH_SQL), anyList())).thenReturn(new int[] { 1, 1 });
+
+        viewCounter.flush();
+
+        ArgumentCaptor<List<Object[]>> batchArgs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(BufferedViewCounter.FLUSH_SQL), batchArgs.capture());
+        assertEquals(2, batchArgs.getValue().size());
+        assertEquals(0, viewCounter.pendingViews());
+        assertEquals(2, viewCounter.currentViews(1L, 0));
+        assertEquals(11, viewCounter.currentViews(2L, 10));
+        verify(advertisementCache).updateViews(1L, 2);
+        verify(advertisementCache).updateViews(2L, 11);
+    }
+
+    @Test
+    void flush_ShouldForgetAdvertisement_AfterAnIdleFlushInterval() {
+        viewCounter.recordView(1L, 5);
+        when(jdbcTemplate.batchUpdate(eq(BufferedViewCounter.FLUSH_SQL), anyList())).thenReturn(new int[] { 1 });
+
+        viewCounter.flush();
+        assertEquals(6, viewCounter.currentViews(1L, 5));
+
+        viewCounter.flush();
+        // forgotten: the count comes from the caller's snapshot again, which the first flush raised
+        assertEquals(8, viewCounter.currentViews(1L, 8));
+        assertEquals(7, viewCounter.recordView(1L, 6));
+        assertEquals(1, viewCounter.pendingViews());
+    }
+
+    @Test
+    void currentViews_ShouldNeverDecrease_WhileFlushing() throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(eq(BufferedViewCounter.FLUSH_SQL), anyList())).thenReturn(new int[] { 1 });
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger decreases = new AtomicInteger();
+        Thread reader = Thread.ofPlatform().start(() -> {
+            int last = 0;
+            while (running.get()) {
+                int views = viewCounter.currentViews(1L, 0);
+                if (views < last) {
+                    decreases.incrementAndGet();
+                }
+                last = views;
+            }
+        });
+
+        for (int i = 0; i < 20_000; i++) {
+            viewCounter.recordView(1L, 0);
+            viewCounter.flush();
+        }
+        running.set(false);
+        reader.join();
+
+        assertEquals(0, decreases.get());
+        assertEquals(20_000, viewCounter.currentViews(1L, 0));
+    }
+
+    @Test
+    void flush_ShouldSkipDatabase_WhenNothingIsPending() {
+        viewCounter.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void flush_ShouldKeepPendingViews_WhenDatabaseFails() {
+        viewCounter.recordView(1L, 0);
+        when(jdbcTemplate.batchUpdate(eq(BufferedViewCounter.FLUSH_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        viewCounter.flush();
+
+        assertEquals(1, viewCounter.pendingViews());
+        assertEquals(1, viewCounter.currentViews(1L, 0));
+    }
+
+    @Test
+    void flush_ShouldForgetAdvertisement_WhenRowNoLongerExists() {
+        viewCounter.recordView(1L, 3);
+        when(jdbcTemplate.batchUpdate(eq(BufferedViewCounter.FLUSH_SQL), anyList())).thenReturn(new int[] { 0 });
+
+        viewCounter.flush();
+
+        assertEquals(0, viewCounter.pendingViews());
+        assertEquals(3, viewCounter.currentViews(1L, 3));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.task_codepred.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.task_codepred.entity.Advertisement;
+import com.example.task_codepred.repository.AdvertisementRepository;
+
+@SpringBootTest(properties = "ads.views.write-behind=false")
+class DirectViewCounterConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int VIEWS_PER_THREAD = 50;
+
+    @Autowired
+    private AdvertisementService advertisementService;
+
+    @Autowired
+    private AdvertisementRepository advertisementRepository;
+
+    @Autowired
+    private ViewCounter viewCounter;
+
+    @Test
+    void concurrentViews_ShouldNotLoseIncrements() throws Exception {
+        assertInstanceOf(DirectViewCounter.class, viewCounter);
+
+        Advertisement advertisement = new Advertisement();
+        advertisement.setTresc("Ogłoszenie testowane współbieżnie");
+        Long id = advertisementService.add(advertisement).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < VIEWS_PER_THREAD; j++) {
+                        advertisementService.getById(id);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int views = advertisementRepository.findById(id).orElseThrow().getIloscWyswietlen();
+        assertEquals(THREADS * VIEWS_PER_THREAD, views);
+    }
+}
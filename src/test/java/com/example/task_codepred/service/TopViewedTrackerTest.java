@@ -0,0 +1,87 @@
+package com.example.task_codepred.service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.task_codepred.repository.AdvertisementRepository;
+
+import jakarta.persistence.EntityManager;
+
+@DisabledInNativeImage
+@ExtendWith(MockitoExtension.class)
+class TopViewedTrackerTest {
+
+    @Mock
+    private AdvertisementRepository advertisementRepository;
+
+    @Mock
+    private ViewCounter viewCounter;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void top_ShouldOrderByViewsThenId() {
+        TopViewedTracker tracker = tracker("exact", 1000);
+        tracker.record(1L, 5);
+        tracker.record(2L, 7);
+        tracker.record(3L, 5);
+
+        assertEquals(List.of(2L, 1L, 3L), tracker.top(10));
+        assertEquals(List.of(2L, 1L), tracker.top(2));
+    }
+
+    @Test
+    void record_ShouldMoveAdvertisementUpAndIgnoreStaleCounts() {
+        TopViewedTracker tracker = tracker("exact", 1000);
+        tracker.record(1L, 5);
+        tracker.record(2L, 7);
+
+        tracker.record(1L, 8);
+        tracker.record(1L, 6);
+
+        assertEquals(List.of(1L, 2L), tracker.top(10));
+    }
+
+    @Test
+    void evict_ShouldRemoveDeletedAdvertisement() {
+        TopViewedTracker tracker = tracker("exact", 1000);
+        tracker.record(1L, 5);
+        tracker.record(2L, 7);
+
+        tracker.evict(2L);
+
+        assertEquals(List.of(1L), tracker.top(10));
+    }
+
+    @Test
+    void approximateMode_ShouldKeepOnlyBestCandidates() {
+        TopViewedTracker tracker = tracker("approximate", 2);
+        tracker.record(1L, 5);
+        tracker.record(2L, 7);
+        tracker.record(3L, 1);
+        tracker.record(4L, 9);
+
+        assertEquals(List.of(4L, 2L), tracker.top(10));
+
+        tracker.record(3L, 20);
+
+        assertEquals(List.of(3L, 4L), tracker.top(10));
+    }
+
+    private TopViewedTracker tracker(String mode, int capacity) {
+        return new TopViewedTracker(advertisementRepository, viewCounter, entityManager,
+                new TransactionTemplate(transactionManager), mode, capacity);
+    }
+}
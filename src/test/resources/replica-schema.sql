@@ -0,0 +1,19 @@
+-- schema of the stand-in read replica used by ReadWriteRoutingIntegrationTest,
+-- run on every new connection, hence IF NOT EXISTS
+CREATE SEQUENCE IF NOT EXISTS advertisements_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS advertisements (
+    id               BIGINT        NOT NULL,
+    tresc            VARCHAR(1000) NOT NULL,
+    data_dodania     TIMESTAMP(6),
+    ilosc_wyswietlen INTEGER       DEFAULT 0 NOT NULL,
+    wersja           BIGINT,
+    CONSTRAINT pk_advertisements PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS advertisement_views_hourly (
+    advertisement_id BIGINT       NOT NULL,
+    hour_start       TIMESTAMP(6) NOT NULL,
+    views            BIGINT       NOT NULL,
+    CONSTRAINT pk_advertisement_views_hourly PRIMARY KEY (advertisement_id, hour_start)
+);